@@ -0,0 +1,28 @@
+package core;
+
+public class Activity {
+    public final String description;
+    public final String time;
+    public final String icon;
+    public final String color;
+
+    public Activity(String description, String time, String icon, String color) {
+        this.description = description;
+        this.time = time;
+        this.icon = icon;
+        this.color = color;
+    }
+
+    @Override
+    public String toString() {
+        return description + "|" + time + "|" + icon + "|" + color;
+    }
+
+    public static Activity fromString(String str) {
+        String[] parts = str.split("\\|");
+        if (parts.length == 4) {
+            return new Activity(parts[0], parts[1], parts[2], parts[3]);
+        }
+        return null;
+    }
+}
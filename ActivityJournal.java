@@ -0,0 +1,313 @@
+package core;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Append-only, memory-mapped activity history.
+//
+// Entries live in fixed-size segment files (seg-<n>.log) under the user's journal directory.
+// Only the newest entries are kept on the heap in a small ring; older pages are read from
+// the segments on demand. Deletes append a tombstone. When a segment fills up a new one is
+// started, and segments beyond the retention limit are removed, so memory and per-edit
+// cost stay constant however long the history gets.
+public class ActivityJournal implements Closeable {
+    public static class Entry {
+        public final long id;
+        public final String line;
+
+        Entry(long id, String line) {
+            this.id = id;
+            this.line = line;
+        }
+
+        // Null if the line is not a well-formed activity
+        public Activity activity() {
+            return Activity.fromString(line);
+        }
+    }
+
+    private static final int MAGIC = 0x41434A4C; // "ACJL"
+    // Segment header: [int magic][int write position][long id of the first entry]
+    private static final int HEADER_SIZE = 16;
+    private static final byte TYPE_ENTRY = 0;
+    private static final byte TYPE_TOMBSTONE = 1;
+    // Length, type and id in front of each payload
+    private static final int RECORD_OVERHEAD = 4 + 1 + 8;
+    private static final long FORCE_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final File dir;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final int ringSize;
+
+    private final TreeMap<Integer, File> segments = new TreeMap<>();
+    // Per retained segment: the id of its first entry and how many of its entries are not deleted,
+    // so paging can step over whole segments without reading them
+    private final Map<Integer, Long> firstIds = new HashMap<>();
+    private final Map<Integer, Integer> liveCounts = new HashMap<>();
+    private final Deque<Entry> ring = new ArrayDeque<>();
+    private final Set<Long> deleted = new HashSet<>();
+    private FileChannel channel;
+    private MappedByteBuffer current;
+    private int currentSegment;
+    private long nextId;
+    private boolean created;
+    private long lastForce = System.nanoTime();
+
+    public ActivityJournal(File dir, int segmentBytes, int maxSegments, int ringSize) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        this.ringSize = ringSize;
+        open();
+    }
+
+    // True if the journal directory had no segments when opened, i.e. nothing has been migrated yet
+    public boolean isNew() {
+        return created;
+    }
+
+    // Appends as the newest entry and returns its id. A line too long for a segment is refused.
+    public synchronized long append(String line) throws IOException {
+        long id = nextId;
+        byte[] payload = line.getBytes(StandardCharsets.UTF_8);
+        if (RECORD_OVERHEAD + payload.length > segmentBytes - HEADER_SIZE) {
+            throw new IOException("Activity of " + payload.length + " bytes does not fit in a "
+                    + segmentBytes + "-byte journal segment");
+        }
+        write(TYPE_ENTRY, id, payload);
+        liveCounts.merge(currentSegment, 1, Integer::sum);
+        nextId++;
+        ring.addFirst(new Entry(id, line));
+        if (ring.size() > ringSize) ring.removeLast();
+        return id;
+    }
+
+    public synchronized void delete(long id) throws IOException {
+        if (id < firstRetainedId() || id >= nextId || deleted.contains(id)) return;
+        write(TYPE_TOMBSTONE, id, new byte[0]);
+        deleted.add(id);
+        Integer n = segmentOf(id);
+        if (n != null) liveCounts.merge(n, -1, Integer::sum);
+        if (ring.removeIf(e -> e.id == id)) {
+            refillRing();
+        }
+    }
+
+    // Newest-first; served from the heap ring when it is large enough
+    public synchronized List<Entry> newest(int limit) throws IOException {
+        if (limit <= ring.size() || ring.size() < ringSize) {
+            List<Entry> result = new ArrayList<>(Math.min(limit, ring.size()));
+            for (Entry e : ring) {
+                if (result.size() == limit) break;
+                result.add(e);
+            }
+            return result;
+        }
+        return page(0, limit);
+    }
+
+    // Newest-first page of live entries, read from the segments
+    public synchronized List<Entry> page(int offset, int limit) throws IOException {
+        List<Entry> result = new ArrayList<>(limit);
+        int skipped = 0;
+        for (Integer n : segments.descendingKeySet()) {
+            int live = liveCounts.getOrDefault(n, 0);
+            if (skipped + live <= offset) {
+                skipped += live;
+                continue;
+            }
+            List<Entry> entries = readEntries(n);
+            for (int i = entries.size() - 1; i >= 0; i--) {
+                Entry e = entries.get(i);
+                if (deleted.contains(e.id)) continue;
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(e);
+                if (result.size() == limit) return result;
+            }
+        }
+        return result;
+    }
+
+    // Imports an old activities_<user>.txt, whose first line is the newest activity
+    public void importLines(List<String> newestFirst) throws IOException {
+        for (int i = newestFirst.size() - 1; i >= 0; i--) {
+            append(newestFirst.get(i));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) current.force();
+        if (channel != null) channel.close();
+    }
+
+    private void open() throws IOException {
+        dir.mkdirs();
+        File[] files = dir.listFiles((d, name) -> name.startsWith("seg-") && name.endsWith(".log"));
+        if (files != null) {
+            for (File f : files) {
+                try {
+                    segments.put(Integer.parseInt(f.getName().substring(4, f.getName().length() - 4)), f);
+                } catch (NumberFormatException ignored) { }
+            }
+        }
+
+        if (segments.isEmpty()) {
+            created = true;
+            startSegment(1, 0);
+        } else {
+            long next = 0;
+            for (Integer n : segments.headMap(segments.lastKey()).keySet()) {
+                next = indexSegment(n, next);
+            }
+            currentSegment = segments.lastKey();
+            mapCurrent();
+            if (current.getInt(0) != MAGIC) {
+                // Created but never initialised before a crash; start it afresh after the older segments
+                channel.close();
+                startSegment(currentSegment, next);
+            } else {
+                nextId = indexSegment(currentSegment, next);
+            }
+        }
+
+        // Tombstones may point into older segments, so they are only applied once all are indexed
+        for (long id : deleted) {
+            Integer n = segmentOf(id);
+            if (n != null) liveCounts.merge(n, -1, Integer::sum);
+        }
+        refillRing();
+    }
+
+    private void write(byte type, long id, byte[] payload) throws IOException {
+        int recordSize = RECORD_OVERHEAD + payload.length;
+        int pos = current.getInt(4);
+        if (pos + recordSize > segmentBytes) {
+            rollOver();
+            pos = current.getInt(4);
+        }
+        current.putInt(pos, 1 + 8 + payload.length);
+        current.put(pos + 4, type);
+        current.putLong(pos + 5, id);
+        current.put(pos + 13, payload);
+        // Publishing the new end last means a crash mid-write leaves the record invisible, not torn.
+        // The mapped pages belong to the OS, so the record survives the process dying at once.
+        // Surviving an OS crash or power loss needs msync, which happens at rollover, at close and
+        // at most once a second here; entries since the last one can be lost in that case.
+        current.putInt(4, pos + recordSize);
+        long now = System.nanoTime();
+        if (now - lastForce >= FORCE_INTERVAL_NANOS) {
+            current.force();
+            lastForce = now;
+        }
+    }
+
+    private void rollOver() throws IOException {
+        current.force();
+        channel.close();
+        startSegment(currentSegment + 1, nextId);
+        while (segments.size() > maxSegments) {
+            Map.Entry<Integer, File> oldest = segments.pollFirstEntry();
+            oldest.getValue().delete();
+            firstIds.remove(oldest.getKey());
+            liveCounts.remove(oldest.getKey());
+        }
+        long firstId = firstRetainedId();
+        deleted.removeIf(id -> id < firstId);
+    }
+
+    private void startSegment(int n, long firstId) throws IOException {
+        File f = new File(dir, String.format("seg-%06d.log", n));
+        segments.put(n, f);
+        firstIds.put(n, firstId);
+        liveCounts.put(n, 0);
+        currentSegment = n;
+        mapCurrent();
+        current.putInt(0, MAGIC);
+        current.putInt(4, HEADER_SIZE);
+        current.putLong(8, firstId);
+        nextId = firstId;
+    }
+
+    private void mapCurrent() throws IOException {
+        channel = FileChannel.open(segments.get(currentSegment).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        current = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    private long firstRetainedId() {
+        if (segments.isEmpty()) return nextId;
+        return firstIds.get(segments.firstKey());
+    }
+
+    // The retained segment an entry id was written to, or null if it has been dropped. A segment
+    // holding only tombstones shares its first id with the next one, so the newest match wins.
+    private Integer segmentOf(long id) {
+        for (Integer n : segments.descendingKeySet()) {
+            if (firstIds.get(n) <= id) return n;
+        }
+        return null;
+    }
+
+    private ByteBuffer mapSegment(int n) throws IOException {
+        if (n == currentSegment) return current;
+        try (FileChannel ch = FileChannel.open(segments.get(n).toPath(), StandardOpenOption.READ)) {
+            return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+        }
+    }
+
+    // Records a segment's first id, entry count and tombstones without decoding any payloads.
+    // Returns the id that follows its last entry; a segment without a header is taken as empty,
+    // starting at fallbackFirstId.
+    private long indexSegment(int n, long fallbackFirstId) throws IOException {
+        ByteBuffer segment = mapSegment(n);
+        long firstId = segment.getInt(0) == MAGIC ? segment.getLong(8) : fallbackFirstId;
+        int count = 0;
+        if (segment.getInt(0) == MAGIC) {
+            int end = segment.getInt(4);
+            for (int pos = HEADER_SIZE; pos < end; pos += 4 + segment.getInt(pos)) {
+                if (segment.get(pos + 4) == TYPE_TOMBSTONE) {
+                    deleted.add(segment.getLong(pos + 5));
+                } else {
+                    count++;
+                }
+            }
+        }
+        firstIds.put(n, firstId);
+        liveCounts.put(n, count);
+        return firstId + count;
+    }
+
+    // Reads one segment's entries oldest-first, deleted ones included
+    private List<Entry> readEntries(int n) throws IOException {
+        ByteBuffer segment = mapSegment(n);
+        if (segment.getInt(0) != MAGIC) return Collections.emptyList();
+
+        List<Entry> entries = new ArrayList<>();
+        int end = segment.getInt(4);
+        for (int pos = HEADER_SIZE; pos < end; ) {
+            int len = segment.getInt(pos);
+            if (segment.get(pos + 4) == TYPE_ENTRY) {
+                byte[] payload = new byte[len - 9];
+                segment.get(pos + 13, payload);
+                entries.add(new Entry(segment.getLong(pos + 5), new String(payload, StandardCharsets.UTF_8)));
+            }
+            pos += 4 + len;
+        }
+        return entries;
+    }
+
+    private void refillRing() throws IOException {
+        ring.clear();
+        ring.addAll(page(0, ringSize));
+    }
+}
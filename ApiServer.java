@@ -0,0 +1,504 @@
+package api;
+
+import auth.UserManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import core.*;
+import metrics.Metrics;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Local JSON API over the files the dashboard persists, for other tools on the same machine.
+// Listens on the loopback interface only. Start it with -Dapi.port=<port> next to the GUI, or
+// headless with "Main serve --port <port>".
+//
+//   POST   /api/login                      Basic auth -> {"token": ...}; later calls send "Bearer <token>"
+//   DELETE /api/login
+//   GET    /api/courses                     ["name", ...]
+//   POST   /api/courses                     {"name"}
+//   DELETE /api/courses/{name}
+//   GET    /api/courses/{name}/resources    [{"name","type","url"}, ...]
+//   POST   /api/courses/{name}/resources    {"name","type","url"}
+//   GET    /api/resources                   [{"course","name","type","url"}, ...]
+//   GET    /api/deadlines                   [{"title","dueDate","type","urgent"}, ...]
+//   POST   /api/deadlines                   {"title","dueDate","type","urgent"}
+//   DELETE /api/deadlines/{index}
+//   GET    /api/assessments                 [{"title","course","dueDate","status"}, ...]
+//   POST   /api/assessments                 {"title","course","dueDate","status"}
+//   DELETE /api/assessments/{index}
+//
+// Users' data is served from a TenantCache: hot users stay loaded, idle ones are dropped after
+// -Dapi.idleMinutes and the least recently used ones whenever the cache passes -Dapi.cacheMB.
+// A user's requests are serialized through one of -Dapi.lockStripes striped locks, so users
+// on different stripes proceed in parallel. Edits are saved before the response is sent.
+// Collections are streamed row by row, so a 200k-row section is never encoded as one string.
+// Only the row references are copied under the user's lock; encoding and sending happen after
+// it is released, so a slow client does not hold up the other users on its stripe.
+// The cache does not see edits made by a running dashboard, and the dashboard does not see API
+// edits until it reloads; run one or the other against a user's files.
+public class ApiServer {
+    private static final long SESSION_MILLIS = TimeUnit.MINUTES.toMillis(Long.getLong("api.sessionMinutes", 60));
+    private static final Metrics.Timer requestTimer = Metrics.timer("api.request");
+    private static final Metrics.Counter errorCounter = Metrics.counter("api.errors");
+
+    static {
+        // Streamed responses end with a small chunk; without TCP_NODELAY it waits ~40 ms for the
+        // client's delayed ACK. Read once by the JDK server, so it has to be set before the first one.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final TenantCache tenants;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final class Session {
+        final String username;
+        volatile long expiresAt;
+
+        Session(String username) {
+            this.username = username;
+            this.expiresAt = System.currentTimeMillis() + SESSION_MILLIS;
+        }
+    }
+
+    // An error answered with the given status and {"error": message}
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    // dir is the data directory (null for the working directory); port 0 picks a free port
+    public ApiServer(File dir, int port) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = requestExecutor();
+        this.tenants = new TenantCache(dir, Long.getLong("api.cacheMB", 256) << 20,
+                TimeUnit.MINUTES.toMillis(Long.getLong("api.idleMinutes", 30)), Integer.getInteger("api.lockStripes", 64));
+        sweeper.scheduleWithFixedDelay(tenants::evictIdle, 1, 1, TimeUnit.MINUTES);
+        sweeper.scheduleWithFixedDelay(this::purgeSessions, 1, 1, TimeUnit.MINUTES);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public static ApiServer startIfEnabled() {
+        Integer port = Integer.getInteger("api.port");
+        if (port == null) return null;
+        try {
+            ApiServer api = new ApiServer(null, port);
+            api.start();
+            return api;
+        } catch (IOException e) {
+            System.err.println("API server not started: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // One virtual thread per request where the runtime has them (Java 21+), else a fixed pool
+    // of -Dapi.threads platform threads
+    static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(Integer.getInteger("api.threads", 64), r -> {
+                Thread t = new Thread(r, "api-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        sweeper.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long t = requestTimer.start();
+        try {
+            List<String> path = segments(exchange.getRequestURI().getRawPath());
+            String method = exchange.getRequestMethod();
+            if (path.size() == 1 && path.get(0).equals("login")) {
+                login(exchange, method);
+            } else {
+                route(exchange, method, path, authenticate(exchange));
+            }
+        } catch (ApiException e) {
+            error(exchange, e.status, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            error(exchange, 400, e.getMessage());
+        } catch (IOException | UncheckedIOException e) {
+            // Usually the client went away in the middle of a streamed response
+            errorCounter.increment();
+        } catch (RuntimeException e) {
+            error(exchange, 500, e.toString());
+        } finally {
+            exchange.close();
+            requestTimer.stop(t);
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, List<String> path, String user) throws IOException {
+        String section = path.isEmpty() ? "" : path.get(0);
+        switch (section + "/" + path.size()) {
+            case "courses/1":
+                if (method.equals("GET")) listCourses(exchange, user);
+                else if (method.equals("POST")) addCourse(exchange, user);
+                else throw notAllowed();
+                break;
+            case "courses/2":
+                if (!method.equals("DELETE")) throw notAllowed();
+                deleteCourse(exchange, user, path.get(1));
+                break;
+            case "courses/3":
+                if (!path.get(2).equals("resources")) throw notFound();
+                if (method.equals("GET")) listResources(exchange, user, path.get(1));
+                else if (method.equals("POST")) addResource(exchange, user, path.get(1));
+                else throw notAllowed();
+                break;
+            case "resources/1":
+                if (!method.equals("GET")) throw notAllowed();
+                listResources(exchange, user, null);
+                break;
+            case "deadlines/1":
+                if (method.equals("GET")) listDeadlines(exchange, user);
+                else if (method.equals("POST")) addDeadline(exchange, user);
+                else throw notAllowed();
+                break;
+            case "deadlines/2":
+                if (!method.equals("DELETE")) throw notAllowed();
+                deleteDeadline(exchange, user, index(path.get(1)));
+                break;
+            case "assessments/1":
+                if (method.equals("GET")) listAssessments(exchange, user);
+                else if (method.equals("POST")) addAssessment(exchange, user);
+                else throw notAllowed();
+                break;
+            case "assessments/2":
+                if (!method.equals("DELETE")) throw notAllowed();
+                deleteAssessment(exchange, user, index(path.get(1)));
+                break;
+            default:
+                throw notFound();
+        }
+    }
+
+    // --- sessions ---
+
+    private void login(HttpExchange exchange, String method) throws IOException {
+        if (method.equals("DELETE")) {
+            String token = bearer(exchange);
+            if (token != null) sessions.remove(token);
+            send(exchange, 204, null);
+            return;
+        }
+        if (!method.equals("POST")) throw notAllowed();
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Basic ")) throw unauthorized("Basic credentials required");
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw unauthorized("Malformed credentials");
+        }
+        int colon = decoded.indexOf(':');
+        if (colon <= 0) throw unauthorized("Malformed credentials");
+        // The stored spelling, so "Alice" and "alice" share one tenant and one set of files
+        String username = UserManager.authenticate(decoded.substring(0, colon), decoded.substring(colon + 1));
+        if (username == null) throw unauthorized("Invalid username or password");
+
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(username));
+        send(exchange, 200, "{\"token\":" + Json.quote(token) + "}");
+    }
+
+    private String authenticate(HttpExchange exchange) {
+        String token = bearer(exchange);
+        Session session = token == null ? null : sessions.get(token);
+        long now = System.currentTimeMillis();
+        if (session == null || session.expiresAt < now) {
+            if (session != null) sessions.remove(token);
+            throw unauthorized("Log in at /api/login first");
+        }
+        session.expiresAt = now + SESSION_MILLIS;
+        return session.username;
+    }
+
+    // Tokens nobody presents again would otherwise stay in the map for good
+    private void purgeSessions() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> session.expiresAt < now);
+    }
+
+    private static String bearer(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null && header.startsWith("Bearer ") ? header.substring(7).trim() : null;
+    }
+
+    // --- courses and resources ---
+
+    private void listCourses(HttpExchange exchange, String user) throws IOException {
+        streamArray(exchange, tenants.read(user, store -> snapshot(store.courses().courses()::forEach)), Json::quote);
+    }
+
+    private void addCourse(HttpExchange exchange, String user) throws IOException {
+        String name = field(body(exchange), "name");
+        boolean added = tenants.write(user, store -> {
+            if (!store.courses().addCourse(name)) return false;
+            store.courses().save();
+            return true;
+        });
+        if (!added) throw new ApiException(409, "Course already exists");
+        send(exchange, 201, "{\"name\":" + Json.quote(name) + "}");
+    }
+
+    private void deleteCourse(HttpExchange exchange, String user, String name) throws IOException {
+        boolean removed = tenants.write(user, store -> {
+            if (!store.courses().hasCourse(name)) return false;
+            store.courses().removeCourse(name);
+            store.courses().save();
+            return true;
+        });
+        if (!removed) throw notFound();
+        send(exchange, 204, null);
+    }
+
+    // course == null lists every resource with its course
+    private void listResources(HttpExchange exchange, String user, String course) throws IOException {
+        List<Object[]> rows = tenants.read(user, store -> {
+            CourseRepository courses = store.courses();
+            if (course != null && !courses.hasCourse(course)) throw notFound();
+            List<String> names = course == null ? courses.courses() : Collections.singletonList(course);
+            return snapshot(emit -> {
+                for (String name : names) {
+                    for (Resource r : courses.resources(name)) emit.accept(new Object[]{name, r});
+                }
+            });
+        });
+        streamArray(exchange, rows, (Object[] row) -> {
+            Resource r = (Resource) row[1];
+            return "{" + (course == null ? "\"course\":" + Json.quote((String) row[0]) + "," : "")
+                    + "\"name\":" + Json.quote(r.name) + ",\"type\":" + Json.quote(r.type)
+                    + ",\"url\":" + Json.quote(r.pathOrUrl) + "}";
+        });
+    }
+
+    private void addResource(HttpExchange exchange, String user, String course) throws IOException {
+        Map<String, String> body = body(exchange);
+        Resource resource = new Resource(field(body, "name"), field(body, "type"), field(body, "url"));
+        boolean added = tenants.write(user, store -> {
+            if (!store.courses().hasCourse(course)) return false;
+            store.courses().addResource(course, resource);
+            store.courses().save();
+            return true;
+        });
+        if (!added) throw notFound();
+        send(exchange, 201, "{\"name\":" + Json.quote(resource.name) + "}");
+    }
+
+    // --- deadlines ---
+
+    private void listDeadlines(HttpExchange exchange, String user) throws IOException {
+        List<Deadline> rows = tenants.read(user, store -> snapshot(store.deadlines()::forEach));
+        streamArray(exchange, rows, (Deadline d) -> "{\"title\":" + Json.quote(d.title) + ",\"dueDate\":" + Json.quote(d.dueDate)
+                + ",\"type\":" + Json.quote(d.type) + ",\"urgent\":" + d.urgent + "}");
+    }
+
+    private void addDeadline(HttpExchange exchange, String user) throws IOException {
+        Map<String, String> body = body(exchange);
+        Deadline deadline = new Deadline(field(body, "title"), date(field(body, "dueDate")),
+                field(body, "type"), Boolean.parseBoolean(body.get("urgent")));
+        tenants.write(user, store -> {
+            store.deadlines().add(deadline);
+            return store.deadlines().save();
+        });
+        send(exchange, 201, "{\"title\":" + Json.quote(deadline.title) + "}");
+    }
+
+    private void deleteDeadline(HttpExchange exchange, String user, int index) throws IOException {
+        boolean removed = tenants.write(user, store -> {
+            if (index >= store.deadlines().size()) return false;
+            store.deadlines().remove(index);
+            store.deadlines().save();
+            return true;
+        });
+        if (!removed) throw notFound();
+        send(exchange, 204, null);
+    }
+
+    // --- assessments ---
+
+    private void listAssessments(HttpExchange exchange, String user) throws IOException {
+        long today = LocalDate.now().toEpochDay();
+        List<Assessment> rows = tenants.read(user, store -> snapshot(store.assessments()::forEach));
+        streamArray(exchange, rows, (Assessment a) -> "{\"title\":" + Json.quote(a.title) + ",\"course\":" + Json.quote(a.course)
+                + ",\"dueDate\":" + Json.quote(a.dueDate()) + ",\"status\":" + Json.quote(a.statusLabel(today)) + "}");
+    }
+
+    private void addAssessment(HttpExchange exchange, String user) throws IOException {
+        Map<String, String> body = body(exchange);
+        Assessment assessment = new Assessment(field(body, "title"), field(body, "course"), date(field(body, "dueDate")));
+        tenants.write(user, store -> {
+            store.assessments().add(assessment);
+            return store.assessments().save();
+        });
+        send(exchange, 201, "{\"title\":" + Json.quote(assessment.title) + "}");
+    }
+
+    private void deleteAssessment(HttpExchange exchange, String user, int index) throws IOException {
+        boolean removed = tenants.write(user, store -> {
+            if (index >= store.assessments().size()) return false;
+            store.assessments().remove(index);
+            store.assessments().save();
+            return true;
+        });
+        if (!removed) throw notFound();
+        send(exchange, 204, null);
+    }
+
+    // --- requests and responses ---
+
+    private interface Source<T> {
+        void forEach(Consumer<T> emit);
+    }
+
+    private interface Encoder<T> {
+        String encode(T row);
+    }
+
+    // The rows themselves are immutable, so copying the references is a consistent snapshot
+    private static <T> List<T> snapshot(Source<T> source) {
+        List<T> rows = new ArrayList<>();
+        source.forEach(rows::add);
+        return rows;
+    }
+
+    // Chunked JSON array, encoded row by row as it is written
+    private static <T> void streamArray(HttpExchange exchange, List<T> rows, Encoder<T> encoder) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(200, 0);
+        Writer out = new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 1 << 14);
+        out.write('[');
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) out.write(',');
+            out.write(encoder.encode(rows.get(i)));
+        }
+        out.write(']');
+        out.flush();
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        if (json == null) {
+            // A bodiless response is finished as soon as the headers go out, and the server drops
+            // the connection instead of reusing it if the request was not read to the end
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void error(HttpExchange exchange, int status, String message) {
+        errorCounter.increment();
+        try {
+            send(exchange, status, "{\"error\":" + Json.quote(String.valueOf(message)) + "}");
+        } catch (IOException ignored) {
+            // Headers already sent or client gone
+        }
+    }
+
+    private static Map<String, String> body(HttpExchange exchange) throws IOException {
+        byte[] bytes = exchange.getRequestBody().readAllBytes();
+        return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    // A required text field; the files are pipe-delimited and line-based, so neither may appear
+    private static String field(Map<String, String> body, String name) {
+        String value = body.get(name);
+        if (value == null || value.trim().isEmpty()) throw new IllegalArgumentException("Missing field " + name);
+        if (value.indexOf('|') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Field " + name + " may not contain '|' or line breaks");
+        }
+        return value.trim();
+    }
+
+    private static String date(String value) {
+        try {
+            return LocalDate.parse(value).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Dates are yyyy-MM-dd");
+        }
+    }
+
+    private static int index(String segment) {
+        try {
+            int index = Integer.parseInt(segment);
+            if (index < 0) throw notFound();
+            return index;
+        } catch (NumberFormatException e) {
+            throw notFound();
+        }
+    }
+
+    // Path segments after /api/, percent-decoded ('+' is literal in a path, as in "C++")
+    private static List<String> segments(String rawPath) {
+        List<String> segments = new ArrayList<>();
+        for (String part : rawPath.substring("/api/".length()).split("/")) {
+            if (!part.isEmpty()) segments.add(URLDecoder.decode(part.replace("+", "%2B"), StandardCharsets.UTF_8));
+        }
+        return segments;
+    }
+
+    private static ApiException notFound() {
+        return new ApiException(404, "Not found");
+    }
+
+    private static ApiException notAllowed() {
+        return new ApiException(405, "Method not allowed");
+    }
+
+    private static ApiException unauthorized(String message) {
+        return new ApiException(401, message);
+    }
+}
@@ -1,15 +1,90 @@
-package dashboard;
+package core;
 
-import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
-class Assessment {
-    String title;
-    String course;
-    String dueDate;
+// One row of data/assessments_<user>.txt: title|course|dueDate|status.
+// The due date is held as an epoch day and the status is worked out from it for the day
+// asked about, so nothing has to be rewritten when the date changes. The status column is
+// still written for older versions, and only read back for rows whose date does not parse.
+// Course names are interned: a user has thousands of rows over a few dozen courses.
+public class Assessment {
+    // epochDay of a row whose dueDate is not a yyyy-MM-dd date
+    public static final int NO_DATE = Integer.MIN_VALUE;
 
-    Assessment(String title, String course, String dueDate) {
+    public enum Status {
+        PENDING("Pending"), IN_PROGRESS("In Progress"), COMPLETED("Completed");
+
+        public final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        // null when the label is not one of ours
+        public static Status of(String label) {
+            for (Status status : values()) {
+                if (status.label.equalsIgnoreCase(label)) return status;
+            }
+            return null;
+        }
+    }
+
+    public final String title;
+    public final String course;
+    public final int epochDay;
+    // Only set for rows without a valid date, which keep what the file said
+    private final String rawDate;
+    private final String rawStatus;
+
+    public Assessment(String title, String course, String dueDate) {
+        this(title, course, dueDate, Status.PENDING.label);
+    }
+
+    private Assessment(String title, String course, String dueDate, String status) {
         this.title = title;
-        this.course = course;
-        this.dueDate = dueDate;
+        this.course = course.intern();
+        int day = parseEpochDay(dueDate);
+        this.epochDay = day;
+        this.rawDate = day == NO_DATE ? dueDate : null;
+        this.rawStatus = day == NO_DATE ? status : null;
+    }
+
+    private static int parseEpochDay(String date) {
+        try {
+            return Math.toIntExact(LocalDate.parse(date).toEpochDay());
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return NO_DATE;
+        }
+    }
+
+    public String dueDate() {
+        return epochDay == NO_DATE ? rawDate : LocalDate.ofEpochDay(epochDay).toString();
+    }
+
+    // Completed once past, In Progress on the day, Pending before. Rows without a valid date
+    // keep their saved status (null if it is not one of ours).
+    public Status status(long today) {
+        if (epochDay == NO_DATE) return Status.of(rawStatus);
+        if (epochDay < today) return Status.COMPLETED;
+        return epochDay == today ? Status.IN_PROGRESS : Status.PENDING;
+    }
+
+    public String statusLabel(long today) {
+        Status status = status(today);
+        return status != null ? status.label : rawStatus;
+    }
+
+    @Override
+    public String toString() {
+        return title + "|" + course + "|" + dueDate() + "|" + statusLabel(LocalDate.now().toEpochDay());
+    }
+
+    public static Assessment fromString(String str) {
+        String[] parts = str.split("\\|");
+        if (parts.length == 4) {
+            return new Assessment(parts[0], parts[1], parts[2], parts[3]);
+        }
+        return null;
     }
 }
@@ -0,0 +1,55 @@
+package core;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+// Filter and order for AssessmentRepository.query(). Null fields do not filter; from and to
+// are inclusive due dates.
+public class AssessmentQuery {
+    public enum Sort {
+        // Whatever order the indexes yield
+        NONE("Unsorted"), DUE("Due date"), COURSE("Course"), STATUS("Status");
+
+        public final String label;
+
+        Sort(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public final String course;
+    public final Assessment.Status status;
+    public final LocalDate from;
+    public final LocalDate to;
+    public final Sort sort;
+    public final boolean descending;
+
+    public AssessmentQuery(String course, Assessment.Status status, LocalDate from, LocalDate to, Sort sort, boolean descending) {
+        this.course = course;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+        this.sort = sort;
+        this.descending = descending;
+    }
+
+    // Ties fall back to due date. Null for NONE, where query() keeps the order it found rows in.
+    Comparator<Assessment> comparator(long today) {
+        Comparator<Assessment> byDue = Comparator.comparingInt(a -> a.epochDay);
+        Comparator<Assessment> order;
+        switch (sort) {
+            case DUE: order = byDue; break;
+            case COURSE: order = Comparator.comparing((Assessment a) -> a.course, String.CASE_INSENSITIVE_ORDER)
+                    .thenComparing(a -> a.course).thenComparing(byDue); break;
+            case STATUS: order = Comparator.comparing((Assessment a) -> a.status(today),
+                    Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(byDue); break;
+            default: return null;
+        }
+        return descending ? order.reversed() : order;
+    }
+}
@@ -0,0 +1,224 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+// A user's assessments (data/assessments_<user>.txt)
+//
+// The list keeps file order, which indexes and change-log records refer to. Alongside it are
+// secondary indexes kept up to date by add, merge and remove: rows by course and rows by due
+// day. Status has no index of its own because it is a function of the due day; a status
+// filter narrows the due-day range instead. query() intersects these, walking whichever
+// candidate set is smaller and checking the other conditions per row.
+public class AssessmentRepository implements Iterable<Assessment> {
+    private final File file;
+    private final List<Assessment> assessments = new ArrayList<>();
+    // Rows compare by identity, so the sets hold each row object once
+    private final Map<String, Set<Assessment>> byCourse = new HashMap<>();
+    private final NavigableMap<Integer, List<Assessment>> byDay = new TreeMap<>();
+    private final List<Assessment> undated = new ArrayList<>();
+
+    public AssessmentRepository(File file) {
+        this.file = file;
+    }
+
+    public File file() {
+        return file;
+    }
+
+    public List<Assessment> read() {
+        List<Assessment> list = new ArrayList<>();
+        TextFiles.readLines(file, line -> {
+            Assessment assessment = Assessment.fromString(line);
+            if (assessment != null) list.add(assessment);
+        });
+        return list;
+    }
+
+    public void merge(List<Assessment> loaded) {
+        assessments.addAll(0, loaded);
+        for (Assessment assessment : loaded) index(assessment);
+    }
+
+    public void load() {
+        merge(read());
+    }
+
+    public void add(Assessment assessment) {
+        assessments.add(assessment);
+        index(assessment);
+    }
+
+    public Assessment remove(int index) {
+        Assessment removed = assessments.remove(index);
+        unindex(removed);
+        return removed;
+    }
+
+    // Removes this row object and returns its file index, or -1 if it is not here
+    public int remove(Assessment assessment) {
+        int index = assessments.indexOf(assessment);
+        if (index >= 0) remove(index);
+        return index;
+    }
+
+    private void index(Assessment a) {
+        byCourse.computeIfAbsent(a.course, k -> new LinkedHashSet<>()).add(a);
+        if (a.epochDay == Assessment.NO_DATE) undated.add(a);
+        else byDay.computeIfAbsent(a.epochDay, k -> new ArrayList<>(1)).add(a);
+    }
+
+    private void unindex(Assessment a) {
+        Set<Assessment> course = byCourse.get(a.course);
+        course.remove(a);
+        if (course.isEmpty()) byCourse.remove(a.course);
+        if (a.epochDay == Assessment.NO_DATE) {
+            undated.remove(a);
+        } else {
+            List<Assessment> day = byDay.get(a.epochDay);
+            day.remove(a);
+            if (day.isEmpty()) byDay.remove(a.epochDay);
+        }
+    }
+
+    // Courses that have at least one assessment, sorted
+    public List<String> courses() {
+        List<String> courses = new ArrayList<>(byCourse.keySet());
+        Collections.sort(courses);
+        return courses;
+    }
+
+    public Assessment get(int index) {
+        return assessments.get(index);
+    }
+
+    public int size() {
+        return assessments.size();
+    }
+
+    public boolean isEmpty() {
+        return assessments.isEmpty();
+    }
+
+    @Override
+    public Iterator<Assessment> iterator() {
+        return Collections.unmodifiableList(assessments).iterator();
+    }
+
+    public int countWithStatus(Assessment.Status status, LocalDate today) {
+        return query(new AssessmentQuery(null, status, null, null, AssessmentQuery.Sort.NONE, false), today).size();
+    }
+
+    public List<Assessment> query(AssessmentQuery q, LocalDate today) {
+        int day = Math.toIntExact(today.toEpochDay());
+        // Due-day range from the date bounds, narrowed by the status; NO_DATE is never inside it
+        int lo = q.from != null ? Math.toIntExact(q.from.toEpochDay()) : Assessment.NO_DATE + 1;
+        int hi = q.to != null ? Math.toIntExact(q.to.toEpochDay()) : Integer.MAX_VALUE;
+        if (q.status == Assessment.Status.COMPLETED) {
+            hi = Math.min(hi, day - 1);
+        } else if (q.status == Assessment.Status.IN_PROGRESS) {
+            lo = Math.max(lo, day);
+            hi = Math.min(hi, day);
+        } else if (q.status == Assessment.Status.PENDING) {
+            lo = Math.max(lo, day + 1);
+        }
+        Collection<List<Assessment>> days = lo <= hi ? byDay.subMap(lo, true, hi, true).values() : List.of();
+
+        List<Assessment> result = new ArrayList<>();
+        // Rows without a valid date only match when no date bound is set; NO_DATE sorts first
+        if (q.from == null && q.to == null) {
+            for (Assessment a : undated) {
+                if ((q.course == null || a.course.equals(q.course)) && (q.status == null || a.status(day) == q.status)) {
+                    result.add(a);
+                }
+            }
+        }
+        Set<Assessment> course = q.course == null ? null : byCourse.getOrDefault(q.course, Set.of());
+        if (course != null && countUpTo(days, course.size()) >= course.size()) {
+            for (Assessment a : course) {
+                if (a.epochDay >= lo && a.epochDay <= hi) result.add(a);
+            }
+        } else {
+            for (List<Assessment> rows : days) {
+                for (Assessment a : rows) {
+                    if (course == null || a.course.equals(q.course)) result.add(a);
+                }
+            }
+            // Already in due order, so a stable grouping by course is the whole course sort
+            if (q.sort == AssessmentQuery.Sort.COURSE) {
+                result = groupByCourse(result);
+                if (q.descending) Collections.reverse(result);
+                return result;
+            }
+        }
+        Comparator<Assessment> order = q.comparator(day);
+        if (order != null) result.sort(order);
+        return result;
+    }
+
+    private static List<Assessment> groupByCourse(List<Assessment> rows) {
+        Map<String, List<Assessment>> groups = new HashMap<>();
+        for (Assessment a : rows) groups.computeIfAbsent(a.course, k -> new ArrayList<>()).add(a);
+        List<String> names = new ArrayList<>(groups.keySet());
+        names.sort(String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+        List<Assessment> sorted = new ArrayList<>(rows.size());
+        for (String name : names) sorted.addAll(groups.get(name));
+        return sorted;
+    }
+
+    // Rows in the given days, counting no further than limit
+    private static int countUpTo(Collection<List<Assessment>> days, int limit) {
+        int count = 0;
+        for (List<Assessment> rows : days) {
+            count += rows.size();
+            if (count >= limit) break;
+        }
+        return count;
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>(assessments.size());
+        for (Assessment a : assessments) {
+            lines.add(a.toString());
+        }
+        return lines;
+    }
+
+    public long save() throws IOException {
+        return TextFiles.writeAtomically(file, lines());
+    }
+
+    // Rows due from one date to another, inclusive, in due order
+    public List<Assessment> dueBetween(LocalDate from, LocalDate to) {
+        List<Assessment> result = new ArrayList<>();
+        if (to.isBefore(from)) return result;
+        int first = Math.toIntExact(from.toEpochDay());
+        int last = Math.toIntExact(to.toEpochDay());
+        for (List<Assessment> rows : byDay.subMap(first, true, last, true).values()) result.addAll(rows);
+        return result;
+    }
+
+    public int scanDue(LocalDate today, Consumer<Assessment> dueToday, Consumer<Assessment> dueTomorrow) {
+        return scanDue(dueBetween(today, today.plusDays(7)), today, dueToday, dueTomorrow);
+    }
+
+    // Hands the assessments due today and tomorrow to the callbacks and returns how many are
+    // due in the coming week. Statuses need no update: Assessment.status derives them.
+    public static int scanDue(List<Assessment> assessments, LocalDate today,
+                              Consumer<Assessment> dueToday, Consumer<Assessment> dueTomorrow) {
+        long day = today.toEpochDay();
+        int dueThisWeek = 0;
+        for (Assessment a : assessments) {
+            // NO_DATE is below every real day, so undated rows fall through
+            long due = a.epochDay;
+            if (due < day || due > day + 7) continue;
+            dueThisWeek++;
+            if (due == day) dueToday.accept(a);
+            else if (due == day + 1) dueTomorrow.accept(a);
+        }
+        return dueThisWeek;
+    }
+}
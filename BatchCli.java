@@ -0,0 +1,484 @@
+package cli;
+
+import api.ApiServer;
+import auth.UserManager;
+import core.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Command-line batch mode, used when auth.Main gets arguments. Works on the same files as the
+// dashboard through the core store and never loads AWT, so it starts fast and runs on
+// machines without a display.
+//
+//   authenticate [--in FILE|-]                       username,password lines -> "user<TAB>ok|denied"
+//   import <section> [--in FILE|-] [--replace]       section-format lines added to each user's section
+//   export <section> [--out FILE|-]                  each user's section, in its file format
+//   query [summary|due|events] [--days 7] [--from DATE] [--to DATE]
+//   compact                                          rewrites each user's files, dropping malformed rows
+//   compact --accounts                               compacts users.txt
+//   serve [--port 8787]                              runs the local HTTP API (see ApiServer) until killed
+//
+// Sections are courses, resources, deadlines, assessments, events and activities.
+// Users come from --user NAME or --users FILE|- (one name per line, streamed), and
+// --parallel N processes up to N users at a time; output keeps the input order.
+// With several users, --in/--out take a path containing {user}. --dir points at the data
+// directory (default: the working directory) and --today overrides the date for queries.
+// Exit status is 0 on success, 1 if any user failed and 2 for bad arguments.
+public final class BatchCli {
+    private static final Set<String> FLAGS = new HashSet<>(Arrays.asList("replace", "accounts"));
+    private static final List<String> SECTIONS = Arrays.asList("courses", "resources", "deadlines", "assessments", "events", "activities");
+
+    private final Map<String, String> options;
+    private final List<String> positional;
+    private final InputStream in;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final File dir;
+    private final LocalDate today;
+    // Writers take the file's lock, so a user listed twice is never rewritten by two workers at once
+    private final ConcurrentHashMap<String, Object> fileLocks = new ConcurrentHashMap<>();
+
+    private BatchCli(Map<String, String> options, List<String> positional, InputStream in, PrintStream out, PrintStream err) {
+        this.options = options;
+        this.positional = positional;
+        this.in = in;
+        this.out = out;
+        this.err = err;
+        this.dir = options.containsKey("dir") ? new File(options.get("dir")) : null;
+        this.today = options.containsKey("today") ? LocalDate.parse(options.get("today")) : LocalDate.now();
+    }
+
+    public static int run(String[] args) {
+        return run(args, System.in, System.out, System.err);
+    }
+
+    public static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        Map<String, String> options = new HashMap<>();
+        List<String> positional = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (!args[i].startsWith("--")) {
+                    positional.add(args[i]);
+                } else if (FLAGS.contains(args[i].substring(2))) {
+                    options.put(args[i].substring(2), "true");
+                } else if (i + 1 < args.length) {
+                    options.put(args[i].substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+            }
+            if (positional.isEmpty()) throw new IllegalArgumentException("Missing command");
+            BatchCli cli = new BatchCli(options, positional, in, out, err);
+            return cli.dispatch(positional.get(0));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            err.println("Error: " + e.getMessage());
+            err.println("Commands: authenticate, import <section>, export <section>, query [summary|due|events], compact, serve");
+            return 2;
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Error: " + e.getMessage());
+            return 1;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private int dispatch(String command) throws IOException {
+        switch (command) {
+            case "authenticate":
+                return authenticate();
+            case "import":
+                return importSection(section());
+            case "export":
+                return exportSection(section());
+            case "query":
+                return query(positional.size() > 1 ? positional.get(1) : "summary");
+            case "compact":
+                if (options.containsKey("accounts")) {
+                    UserManager.compact();
+                    out.println("users.txt compacted");
+                    return 0;
+                }
+                return forEachUser(this::compact);
+            case "serve": {
+                ApiServer api = new ApiServer(dir, Integer.parseInt(options.getOrDefault("port", "8787")));
+                api.start();
+                out.println("Listening on http://127.0.0.1:" + api.port() + "/api/");
+                out.flush();
+                try {
+                    Thread.currentThread().join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    private String section() {
+        if (positional.size() < 2 || !SECTIONS.contains(positional.get(1))) {
+            throw new IllegalArgumentException("Expected a section: " + String.join(", ", SECTIONS));
+        }
+        return positional.get(1);
+    }
+
+    // One unit of work per user (or per credential line); output is printed in input order
+    private interface Task {
+        String run(String key) throws Exception;
+    }
+
+    // An expected negative result: its message goes to the normal output, and the run fails
+    private static final class Rejected extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        Rejected(String message) {
+            super(message);
+        }
+    }
+
+    private int authenticate() throws IOException {
+        try (BufferedReader reader = open(options.getOrDefault("in", "-"))) {
+            return forEach(lines(reader), line -> {
+                int comma = line.indexOf(',');
+                if (comma <= 0) throw new IllegalArgumentException("expected username,password");
+                String username = line.substring(0, comma).trim();
+                boolean ok = UserManager.validateUser(username, line.substring(comma + 1));
+                if (!ok) throw new Rejected(username + "\tdenied");
+                return username + "\tok";
+            });
+        }
+    }
+
+    private int forEachUser(Task task) throws IOException {
+        if (options.containsKey("user")) {
+            return forEach(Collections.singletonList(options.get("user")).iterator(), task);
+        }
+        if (!options.containsKey("users")) throw new IllegalArgumentException("Pass --user NAME or --users FILE|-");
+        try (BufferedReader reader = open(options.get("users"))) {
+            return forEach(lines(reader), task);
+        }
+    }
+
+    // Runs the task for every key, at most --parallel at a time. Keys are pulled lazily, so a
+    // list of thousands of users is never held in memory.
+    private int forEach(Iterator<String> keys, Task task) {
+        int parallel = Integer.parseInt(options.getOrDefault("parallel", "1"));
+        if (parallel < 1) throw new IllegalArgumentException("--parallel must be at least 1");
+        ExecutorService pool = Executors.newFixedThreadPool(parallel, r -> {
+            Thread t = new Thread(r, "batch-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<String>> window = new ArrayDeque<>();
+        int failures = 0;
+        try {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                window.add(pool.submit(() -> task.run(key)));
+                if (window.size() >= parallel * 2) failures += report(window.poll());
+            }
+            while (!window.isEmpty()) failures += report(window.poll());
+        } finally {
+            pool.shutdownNow();
+        }
+        return failures == 0 ? 0 : 1;
+    }
+
+    private int report(Future<String> result) {
+        try {
+            String text = result.get();
+            if (!text.isEmpty()) out.println(text);
+            return 0;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Rejected) {
+                out.println(cause.getMessage());
+            } else {
+                err.println("Error: " + cause);
+            }
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private int importSection(String section) throws IOException {
+        String source = options.getOrDefault("in", "-");
+        boolean replace = options.containsKey("replace");
+        if (!options.containsKey("user") && !source.contains("{user}")) {
+            throw new IllegalArgumentException("With --users, --in needs a path containing {user}");
+        }
+        return forEachUser(user -> {
+            StudyStore store = new StudyStore(dir, user);
+            int[] counts = new int[2];
+            try (BufferedReader reader = open(source.replace("{user}", user))) {
+                if (section.equals("activities")) {
+                    try (StudyStore opened = store) {
+                        ActivityJournal journal = opened.openActivities(list -> list);
+                        // Each imported line becomes the newest entry, so input is oldest first
+                        for (Iterator<String> it = lines(reader); it.hasNext(); ) {
+                            String line = it.next();
+                            if (Activity.fromString(line) == null) counts[1]++;
+                            else {
+                                journal.append(line);
+                                counts[0]++;
+                            }
+                        }
+                    }
+                } else {
+                    File file = sectionFile(store, section);
+                    synchronized (lock(file)) {
+                        if (!replace) load(store, section);
+                        for (Iterator<String> it = lines(reader); it.hasNext(); ) {
+                            counts[add(store, section, it.next()) ? 0 : 1]++;
+                        }
+                        save(store, section);
+                    }
+                }
+            }
+            return user + "\timported " + counts[0] + (counts[1] > 0 ? ", rejected " + counts[1] : "");
+        });
+    }
+
+    // Parses one line in the section's file format and adds it; false if it is malformed
+    private static boolean add(StudyStore store, String section, String line) {
+        switch (section) {
+            case "courses":
+                store.courses().addCourse(line);
+                return true;
+            case "resources": {
+                String[] parts = line.split("\\|");
+                if (parts.length != 4) return false;
+                store.courses().addCourse(parts[0]);
+                store.courses().addResource(parts[0], new Resource(parts[1], parts[2], parts[3]));
+                return true;
+            }
+            case "deadlines": {
+                Deadline deadline = Deadline.fromString(line);
+                if (deadline != null) store.deadlines().add(deadline);
+                return deadline != null;
+            }
+            case "assessments": {
+                Assessment assessment = Assessment.fromString(line);
+                if (assessment != null) store.assessments().add(assessment);
+                return assessment != null;
+            }
+            default: {
+                CalendarEvent event = CalendarEvent.fromString(line);
+                if (event != null) store.events().add(event);
+                return event != null;
+            }
+        }
+    }
+
+    private int exportSection(String section) throws IOException {
+        String target = options.getOrDefault("out", "-");
+        boolean toStdout = target.equals("-");
+        if (!toStdout && !options.containsKey("user") && !target.contains("{user}")) {
+            throw new IllegalArgumentException("With --users, --out needs a path containing {user}");
+        }
+        return forEachUser(user -> {
+            List<String> lines;
+            try (StudyStore store = new StudyStore(dir, user)) {
+                if (section.equals("activities")) {
+                    lines = new ArrayList<>();
+                    List<ActivityJournal.Entry> newestFirst = allActivities(store.openActivities(list -> list));
+                    for (int i = newestFirst.size() - 1; i >= 0; i--) lines.add(newestFirst.get(i).line);
+                } else {
+                    load(store, section);
+                    lines = lines(store, section);
+                }
+            }
+            if (!toStdout) {
+                File file = new File(target.replace("{user}", user));
+                TextFiles.writeAtomically(file, lines);
+                return user + "\texported " + lines.size() + " to " + file.getPath();
+            }
+            // Several users on stdout are told apart by a leading name column
+            boolean tagged = !options.containsKey("user");
+            StringBuilder text = new StringBuilder();
+            for (String line : lines) {
+                if (text.length() > 0) text.append(System.lineSeparator());
+                if (tagged) text.append(user).append('\t');
+                text.append(line);
+            }
+            return text.toString();
+        });
+    }
+
+    private int query(String what) throws IOException {
+        int days = Integer.parseInt(options.getOrDefault("days", "7"));
+        LocalDate from = options.containsKey("from") ? LocalDate.parse(options.get("from")) : today;
+        LocalDate to = options.containsKey("to") ? LocalDate.parse(options.get("to")) : from.plusDays(days);
+        Task task;
+        switch (what) {
+            case "summary":
+                task = user -> {
+                    try (StudyStore store = StudyStore.open(dir, user)) {
+                        AssessmentRepository assessments = store.assessments();
+                        return user + "\tcourses=" + store.courses().courseCount()
+                                + " resources=" + store.courses().resourceCount()
+                                + " deadlines=" + store.deadlines().size()
+                                + " dueWithin" + days + "=" + store.deadlines().countDueWithin(today, days)
+                                + " assessments=" + assessments.size()
+                                + " completed=" + assessments.countWithStatus(Assessment.Status.COMPLETED, today)
+                                + " events=" + store.events().size()
+                                + " activities=" + allActivities(store.activities()).size();
+                    }
+                };
+                break;
+            case "due":
+                task = user -> {
+                    DeadlineRepository deadlines = new StudyStore(dir, user).deadlines();
+                    deadlines.load();
+                    StringJoiner text = new StringJoiner(System.lineSeparator());
+                    for (Deadline deadline : deadlines) {
+                        if (within(deadline.dueDate, today, today.plusDays(days))) text.add(user + "\t" + deadline);
+                    }
+                    return text.toString();
+                };
+                break;
+            case "events":
+                task = user -> {
+                    EventRepository events = new StudyStore(dir, user).events();
+                    events.load();
+                    StringJoiner text = new StringJoiner(System.lineSeparator());
+                    for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                        for (CalendarEvent event : events.on(day)) text.add(user + "\t" + event);
+                    }
+                    return text.toString();
+                };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown query " + what + "; expected summary, due or events");
+        }
+        return forEachUser(task);
+    }
+
+    // Every live entry, newest first
+    private static List<ActivityJournal.Entry> allActivities(ActivityJournal journal) throws IOException {
+        List<ActivityJournal.Entry> entries = new ArrayList<>();
+        List<ActivityJournal.Entry> page;
+        do {
+            page = journal.page(entries.size(), 1024);
+            entries.addAll(page);
+        } while (page.size() == 1024);
+        return entries;
+    }
+
+    private static boolean within(String date, LocalDate from, LocalDate to) {
+        try {
+            LocalDate day = LocalDate.parse(date);
+            return !day.isBefore(from) && !day.isAfter(to);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // Loading and saving drops blank and malformed rows
+    private String compact(String user) throws IOException {
+        try (StudyStore store = new StudyStore(dir, user)) {
+            long bytes = 0;
+            for (String section : SECTIONS) {
+                if (section.equals("activities")) {
+                    store.openActivities(list -> list);
+                    continue;
+                }
+                if (section.equals("resources")) continue; // saved with courses
+                File file = sectionFile(store, section);
+                synchronized (lock(file)) {
+                    load(store, section);
+                    bytes += save(store, section);
+                }
+            }
+            return user + "\tcompacted, " + bytes + " bytes";
+        }
+    }
+
+    private static void load(StudyStore store, String section) {
+        switch (section) {
+            case "courses":
+            case "resources":
+                store.courses().load();
+                break;
+            case "deadlines":
+                store.deadlines().load();
+                break;
+            case "assessments":
+                store.assessments().load();
+                break;
+            default:
+                store.events().load();
+        }
+    }
+
+    private static long save(StudyStore store, String section) throws IOException {
+        switch (section) {
+            case "courses":
+            case "resources":
+                return store.courses().save();
+            case "deadlines":
+                return store.deadlines().save();
+            case "assessments":
+                return store.assessments().save();
+            default:
+                return store.events().save();
+        }
+    }
+
+    private static List<String> lines(StudyStore store, String section) {
+        switch (section) {
+            case "courses":
+                return store.courses().courseLines();
+            case "resources":
+                return store.courses().resourceLines();
+            case "deadlines":
+                return store.deadlines().lines();
+            case "assessments":
+                return store.assessments().lines();
+            default:
+                return store.events().lines();
+        }
+    }
+
+    private static File sectionFile(StudyStore store, String section) {
+        switch (section) {
+            case "courses":
+            case "resources":
+                return store.courses().coursesFile();
+            case "deadlines":
+                return store.deadlines().file();
+            case "assessments":
+                return store.assessments().file();
+            default:
+                return store.events().file();
+        }
+    }
+
+    private Object lock(File file) throws IOException {
+        return fileLocks.computeIfAbsent(file.getCanonicalPath(), k -> new Object());
+    }
+
+    private BufferedReader open(String path) throws IOException {
+        InputStream stream = path.equals("-") ? new FilterInputStream(in) {
+            @Override
+            public void close() {
+                // stdin stays open for the rest of the run
+            }
+        } : new FileInputStream(path);
+        return new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    // Non-blank trimmed lines, read as they are consumed
+    private static Iterator<String> lines(BufferedReader reader) {
+        return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).iterator();
+    }
+}
@@ -0,0 +1,34 @@
+package core;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+// One row of data/events_<user>.txt: date|title|type
+public class CalendarEvent {
+    public final LocalDate date;
+    public final String title;
+    public final String type;
+
+    public CalendarEvent(LocalDate date, String title, String type) {
+        this.date = date;
+        this.title = title;
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return date + "|" + title + "|" + type;
+    }
+
+    public static CalendarEvent fromString(String str) {
+        String[] parts = str.split("\\|");
+        if (parts.length == 3) {
+            try {
+                return new CalendarEvent(LocalDate.parse(parts[0]), parts[1], parts[2]);
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
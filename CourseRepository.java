@@ -0,0 +1,149 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+// A user's courses (courses_<user>.txt, one name per line) and their resources
+// (resources_<user>.txt, course|name|type|pathOrUrl)
+public class CourseRepository {
+    // Contents of the two files; also the repository's own state
+    public static class CourseData {
+        final List<String> courses = new ArrayList<>();
+        final Map<String, List<Resource>> resources = new LinkedHashMap<>();
+
+        public int courseCount() {
+            return courses.size();
+        }
+
+        public int resourceCount() {
+            int count = 0;
+            for (List<Resource> list : resources.values()) count += list.size();
+            return count;
+        }
+    }
+
+    private final File coursesFile;
+    private final File resourcesFile;
+    private final CourseData data = new CourseData();
+
+    public CourseRepository(File coursesFile, File resourcesFile) {
+        this.coursesFile = coursesFile;
+        this.resourcesFile = resourcesFile;
+    }
+
+    public File coursesFile() {
+        return coursesFile;
+    }
+
+    public File resourcesFile() {
+        return resourcesFile;
+    }
+
+    public CourseData read() {
+        CourseData loaded = new CourseData();
+        TextFiles.readLines(coursesFile, line -> {
+            loaded.courses.add(line);
+            loaded.resources.put(line, new ArrayList<>());
+        });
+        TextFiles.readLines(resourcesFile, line -> {
+            String[] parts = line.split("\\|");
+            if (parts.length == 4) {
+                loaded.resources.computeIfAbsent(parts[0], k -> new ArrayList<>()).add(new Resource(parts[1], parts[2], parts[3]));
+            }
+        });
+        return loaded;
+    }
+
+    // Loaded courses and resources go first; anything added before the load finished follows
+    public void merge(CourseData loaded) {
+        List<String> added = new ArrayList<>(data.courses);
+        data.courses.clear();
+        data.courses.addAll(loaded.courses);
+        for (String course : added) {
+            if (!data.courses.contains(course)) data.courses.add(course);
+        }
+        for (Map.Entry<String, List<Resource>> entry : loaded.resources.entrySet()) {
+            data.resources.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(0, entry.getValue());
+        }
+    }
+
+    public void load() {
+        merge(read());
+    }
+
+    public List<String> courses() {
+        return Collections.unmodifiableList(data.courses);
+    }
+
+    public boolean hasCourse(String course) {
+        return data.courses.contains(course);
+    }
+
+    public int courseCount() {
+        return data.courseCount();
+    }
+
+    public int resourceCount() {
+        return data.resourceCount();
+    }
+
+    // False if a course with that name already exists
+    public boolean addCourse(String course) {
+        if (data.courses.contains(course)) return false;
+        data.courses.add(course);
+        data.resources.putIfAbsent(course, new ArrayList<>());
+        return true;
+    }
+
+    // Keeps the course's position and its resources
+    public boolean renameCourse(String oldName, String newName) {
+        int index = data.courses.indexOf(oldName);
+        if (index < 0 || (!oldName.equals(newName) && data.courses.contains(newName))) return false;
+        data.courses.set(index, newName);
+        List<Resource> resources = data.resources.remove(oldName);
+        data.resources.put(newName, resources != null ? resources : new ArrayList<>());
+        return true;
+    }
+
+    public void removeCourse(String course) {
+        data.courses.remove(course);
+        data.resources.remove(course);
+    }
+
+    public List<Resource> resources(String course) {
+        List<Resource> resources = data.resources.get(course);
+        return resources == null ? Collections.emptyList() : Collections.unmodifiableList(resources);
+    }
+
+    public void addResource(String course, Resource resource) {
+        data.resources.computeIfAbsent(course, k -> new ArrayList<>()).add(resource);
+    }
+
+    public boolean removeResource(String course, Resource resource) {
+        List<Resource> resources = data.resources.get(course);
+        return resources != null && resources.remove(resource);
+    }
+
+    public List<String> courseLines() {
+        return new ArrayList<>(data.courses);
+    }
+
+    public List<String> resourceLines() {
+        return resourceLines(data);
+    }
+
+    public static List<String> resourceLines(CourseData data) {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, List<Resource>> entry : data.resources.entrySet()) {
+            for (Resource r : entry.getValue()) {
+                lines.add(entry.getKey() + "|" + r.name + "|" + r.type + "|" + r.pathOrUrl);
+            }
+        }
+        return lines;
+    }
+
+    public long save() throws IOException {
+        return TextFiles.writeAtomically(coursesFile, courseLines()) + TextFiles.writeAtomically(resourcesFile, resourceLines());
+    }
+}
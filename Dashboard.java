@@ -1,6 +1,7 @@
 package dashboard;
 
 import auth.Login;
+import core.*;
 
 import java.io.File;
 import javax.swing.*;
@@ -11,19 +12,29 @@ import java.net.URI;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.YearMonth;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import metrics.FlightEvents;
+import metrics.Metrics;
 import java.io.PrintWriter;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import javax.swing.border.Border;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 public class Dashboard extends JFrame {
     private final String username;
     private JPanel mainContentPanel;
+    // Pages are built on first showPage (or during idle prewarm) from these factories
+    private Map<String, Supplier<JPanel>> pageFactories = new LinkedHashMap<>();
     private Map<String, JPanel> pages = new HashMap<>();
 
     private DefaultListModel<String> courseListModel = new DefaultListModel<>();
@@ -38,15 +49,33 @@ public class Dashboard extends JFrame {
     JProgressBar progressBar = new JProgressBar(0, 100);
 
 
-    // Shared events map for calendar and assessments
-    private Map<LocalDate, List<String[]>> events = new HashMap<>();
-
-    // Assessment data storage
-    private List<String[]> assessmentDataList = new ArrayList<>();
+    // All model state lives in the headless store; the Swing models below are views of it
+    private final StudyStore store;
+    private final DeadlineRepository deadlines;
+    private final AssessmentRepository assessments;
+    // Shared by the calendar and assessments pages
+    private final EventRepository events;
 
     // Components for Assessments panel
-    private DefaultListModel<String> assessmentListModel;
-    private JList<String> assessmentList;
+    private static final String ALL_COURSES = "All courses";
+    private final AssessmentListModel assessmentListModel = new AssessmentListModel();
+    private JList<Assessment> assessmentList;
+    private JComboBox<String> assessmentCourseFilter;
+    private JComboBox<String> assessmentStatusFilter;
+    private JTextField assessmentFromFilter;
+    private JTextField assessmentToFilter;
+    private JComboBox<AssessmentQuery.Sort> assessmentSort;
+    private JCheckBox assessmentDescending;
+    private JLabel assessmentMatchLabel;
+    // Set while the course choices are rebuilt, so that does not re-run the query
+    private boolean updatingAssessmentFilters;
+    // Completed assessments as of completedAsOf, moved on by onDayRollover
+    private int completedAssessments;
+    private LocalDate completedAsOf;
+    private final DayRollover dayRollover = new DayRollover(this::onDayRollover);
+    // Reminders before deadlines, assessments and events come due, shown in the status bar
+    private final ReminderEngine reminders = ReminderEngine.fromProperties(System.currentTimeMillis());
+    private final javax.swing.Timer reminderClock = new javax.swing.Timer(1000, e -> fireReminders());
 
     // Components for dashboard stats update
     private JLabel progressCardValueLabel;   // New JLabel for completion rate card -> link to progress card in stats panel
@@ -65,82 +94,9 @@ public class Dashboard extends JFrame {
     private DefaultListModel<String> activityList = new DefaultListModel<>();
 
 
-    private static class Resource {
-        String name;
-        String type;
-        String pathOrUrl;
-
-        Resource(String name, String type, String pathOrUrl) {
-            this.name = name;
-            this.type = type;
-            this.pathOrUrl = pathOrUrl;
-        }
-
-        @Override
-        public String toString() {
-            return name + " (" + type + ")";
-        }
-    }
-
-    // Deadline class for better management
-    private static class Deadline {
-        String title;
-        String dueDate;
-        String type;
-        boolean urgent;
-
-        Deadline(String title, String dueDate, String type, boolean urgent) {
-            this.title = title;
-            this.dueDate = dueDate;
-            this.type = type;
-            this.urgent = urgent;
-        }
-
-        @Override
-        public String toString() {
-            return title + "|" + dueDate + "|" + type + "|" + urgent;
-        }
-
-        public static Deadline fromString(String str) {
-            String[] parts = str.split("\\|");
-            if (parts.length == 4) {
-                return new Deadline(parts[0], parts[1], parts[2], Boolean.parseBoolean(parts[3]));
-            }
-            return null;
-        }
-    }
-
-    // Activity class for better management
-    private static class Activity {
-        String description;
-        String time;
-        String icon;
-        String color;
-
-        Activity(String description, String time, String icon, String color) {
-            this.description = description;
-            this.time = time;
-            this.icon = icon;
-            this.color = color;
-        }
-
-        @Override
-        public String toString() {
-            return description + "|" + time + "|" + icon + "|" + color;
-        }
-
-        public static Activity fromString(String str) {
-            String[] parts = str.split("\\|");
-            if (parts.length == 4) {
-                return new Activity(parts[0], parts[1], parts[2], parts[3]);
-            }
-            return null;
-        }
-    }
-
-    private Map<String, DefaultListModel<Resource>> courseResourcesMap = new HashMap<>();
-    private List<Deadline> deadlines = new ArrayList<>();
-    private List<Activity> activities = new ArrayList<>();
+    // Activity history lives in an append-only journal; only its newest entries stay on the heap
+    private ActivityJournal journal;
+    private final List<Activity> pendingActivities = new ArrayList<>();
 
     private JTextArea dashboardMyCoursesArea;
     private JTextArea dashboardResourcesDueArea;
@@ -150,178 +106,453 @@ public class Dashboard extends JFrame {
     private final String resourcesFile;
     private final String deadlinesFile;
     private final String activitiesFile;
+    private final String activitiesDir;
+    private final String assessmentsFile;
+    private final String eventsFile;
+
+    // Set on the EDT once each section's file has been read; saves are held back until then
+    // so an edit made while loading cannot overwrite the file with partial data.
+    private boolean coursesLoaded;
+    private boolean deadlinesLoaded;
+    private boolean activitiesLoaded;
+    private boolean assessmentsLoaded;
+    private boolean eventsLoaded;
+
+    // All file access and resource launching goes through here, never the EDT.
+    // Background failures are shown in the status bar rather than a modal dialog.
+    private final IoExecutor io = new IoExecutor(4, this::showStatusError);
+    private JProgressBar busyIndicator;
+    private JLabel statusLabel;
+    private final javax.swing.Timer showBusy = new javax.swing.Timer(200, e -> busyIndicator.setVisible(true));
+    private final javax.swing.Timer clearStatus = new javax.swing.Timer(10000, e -> statusLabel.setText(" "));
+    private final javax.swing.Timer prewarm = new javax.swing.Timer(250, null);
+
+    // Coalesces bursts of edits into one background write per file
+    private final WriteBehindStore persistence = new WriteBehindStore(300, io);
+
+    // Deadlines, assessments and events are made durable by appending to the change
+    // log; their snapshot files are only rewritten as periodic checkpoints.
+    private final MutationLog changeLog;
+    private CompletableFuture<Map<String, List<MutationLog.Record>>> recovery;
+    private final WriteBehindStore checkpoints = new WriteBehindStore(5000, io);
+
+    // Published over JMX when -Dmetrics.enabled=true
+    private static final Metrics.Timer loadCoursesTimer = Metrics.timer("dashboard.loadCoursesAndResources");
+    private static final Metrics.Timer saveResourcesTimer = Metrics.timer("dashboard.saveResources");
+    private static final Metrics.Timer refreshAssessmentsTimer = Metrics.timer("dashboard.refreshAssessmentStatuses");
+    private static final Metrics.Timer assessmentQueryTimer = Metrics.timer("dashboard.assessmentQuery");
+    private static final Metrics.Timer updateDashboardTimer = Metrics.timer("dashboard.updateDashboardData");
+    private final Map<String, Metrics.Timer> pageTimers = new HashMap<>();
+    private volatile int resourceCount;
 
     public Dashboard(String username) {
         this.username = username;
-        coursesFile = "courses_" + username + ".txt";
-        resourcesFile = "resources_" + username + ".txt";
-        deadlinesFile = "deadlines_" + username + ".txt";
-        activitiesFile = "activities_" + username + ".txt";
+        FlightEvents.StartupPhase phase = beginPhase("setup");
+        store = new StudyStore(null, username);
+        deadlines = store.deadlines();
+        assessments = store.assessments();
+        events = store.events();
+        coursesFile = store.courses().coursesFile().getPath();
+        resourcesFile = store.courses().resourcesFile().getPath();
+        deadlinesFile = deadlines.file().getPath();
+        activitiesFile = store.legacyActivitiesFile().getPath();
+        activitiesDir = store.activitiesDir().getPath();
+        assessmentsFile = assessments.file().getPath();
+        eventsFile = events.file().getPath();
+        changeLog = new MutationLog("wal_" + username + ".log", "wal_" + username + ".ckpt",
+                msg -> SwingUtilities.invokeLater(() -> showStatusError(msg)));
 
         setTitle("Study Resource Management Dashboard");
         setExtendedState(JFrame.MAXIMIZED_BOTH);
-        setDefaultCloseOperation(EXIT_ON_CLOSE);
+        // Closing waits for pending writes to reach disk before the JVM exits
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                close();
+                System.exit(0);
+            }
+        });
         setLayout(new BorderLayout());
+        phase.commit();
 
+        phase = beginPhase("layout");
         mainContentPanel = new JPanel(new BorderLayout());
 
-        loadCoursesAndResources();
-        loadDeadlines();
-        loadActivities();
-
-        pages.put("Dashboard", createDashboardPanel());
-        pages.put("Courses", createCoursesPanel());
-        pages.put("Assessments", createAssessmentsPanel());
-        pages.put("Classes", createClassesPanel());
-        pages.put("Students", createStudentsPanel());
-        pages.put("Calendar", createCalendarPanel());
-        pages.put("Reports", createReportsPanel());
+        pageFactories.put("Dashboard", this::createDashboardPanel);
+        pageFactories.put("Courses", this::createCoursesPanel);
+        pageFactories.put("Assessments", this::createAssessmentsPanel);
+        pageFactories.put("Classes", this::createClassesPanel);
+        pageFactories.put("Students", this::createStudentsPanel);
+        pageFactories.put("Calendar", this::createCalendarPanel);
+        pageFactories.put("Reports", this::createReportsPanel);
+        for (String page : pageFactories.keySet()) {
+            pageTimers.put(page, Metrics.timer("dashboard.showPage." + page));
+        }
+        registerGauges();
 
         add(createSidebar(), BorderLayout.WEST);
         add(createTopPanel(), BorderLayout.NORTH);
         add(mainContentPanel, BorderLayout.CENTER);
+        add(createStatusBar(), BorderLayout.SOUTH);
+
+        // Hidden diagnostics view for EDT latency (see EdtMonitor)
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_D, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK), "diagnostics");
+        getRootPane().getActionMap().put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                DiagnosticsDialog.open(Dashboard.this);
+            }
+        });
 
+        phase.commit();
+
+        phase = beginPhase("firstPage");
         showPage("Dashboard");
         this.revalidate();
         this.repaint();
+        phase.commit();
 
+        // Show the frame with placeholder content first, then fill each section as its file arrives
+        phase = beginPhase("show");
         setVisible(true);
+        phase.commit();
+
+        phase = beginPhase("startLoading");
+        startLoading();
+        prewarmPages();
+        dayRollover.start();
+        reminderClock.start();
+        phase.commit();
     }
 
-    // --- Enhanced Persistence methods ---
+    // JFR events (see FlightEvents); each costs a branch when no recording is running
+    private FlightEvents.StartupPhase beginPhase(String name) {
+        FlightEvents.StartupPhase phase = new FlightEvents.StartupPhase();
+        phase.user = username;
+        phase.phase = name;
+        phase.begin();
+        return phase;
+    }
 
-    private void loadCoursesAndResources() {
-        courseListModel.clear();
-        courseResourcesMap.clear();
-
-        // Load courses
-        File cFile = new File(coursesFile);
-        if (cFile.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(cFile))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (!line.trim().isEmpty()) {
-                        courseListModel.addElement(line.trim());
-                        courseResourcesMap.put(line.trim(), new DefaultListModel<>());
-                    }
-                }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error loading courses: " + e.getMessage());
+    private <T> T traceLoad(String entity, IoExecutor.IoTask<T> load, ToIntFunction<T> records, String... files) throws Exception {
+        FlightEvents.Load event = new FlightEvents.Load();
+        event.begin();
+        T result = load.call();
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = username;
+            event.entity = entity;
+            event.records = records.applyAsInt(result);
+            for (String file : files) {
+                event.bytes += new File(file).length();
             }
+            event.commit();
         }
+        return result;
+    }
 
-        // Load resources
-        File rFile = new File(resourcesFile);
-        if (rFile.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(rFile))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (!line.trim().isEmpty()) {
-                        // Format: courseName|resourceName|resourceType|resourcePathOrUrl
-                        String[] parts = line.split("\\|");
-                        if (parts.length == 4) {
-                            String courseName = parts[0];
-                            String resourceName = parts[1];
-                            String resourceType = parts[2];
-                            String resourcePath = parts[3];
-
-                            Resource resource = new Resource(resourceName, resourceType, resourcePath);
-                            courseResourcesMap.computeIfAbsent(courseName, k -> new DefaultListModel<>()).addElement(resource);
-                        }
-                    }
+    private void commitRender(FlightEvents.Render event, String component, int items) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.user = username;
+            event.component = component;
+            event.items = items;
+            event.commit();
+        }
+    }
+
+    private JPanel getPage(String name) {
+        JPanel page = pages.get(name);
+        if (page == null) {
+            page = pageFactories.get(name).get();
+            pages.put(name, page);
+        }
+        return page;
+    }
+
+    // Builds the remaining pages one at a time once the first paint is done, so switching tabs
+    // later is instant without delaying startup. Each tick yields the EDT back to user input.
+    private void prewarmPages() {
+        Iterator<String> pending = new ArrayList<>(pageFactories.keySet()).iterator();
+        prewarm.setInitialDelay(1000);
+        prewarm.addActionListener(e -> {
+            while (pending.hasNext()) {
+                String name = pending.next();
+                if (!pages.containsKey(name)) {
+                    getPage(name);
+                    return;
                 }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error loading resources: " + e.getMessage());
             }
-        }
+            prewarm.stop();
+        });
+        prewarm.start();
     }
 
-    private void loadDeadlines() {
-        deadlines.clear();
-        File file = new File(deadlinesFile);
-        if (file.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (!line.trim().isEmpty()) {
-                        Deadline deadline = Deadline.fromString(line.trim());
-                        if (deadline != null) {
-                            deadlines.add(deadline);
-                        }
+    // --- Enhanced Persistence methods ---
+
+    // Reads all data files concurrently off the EDT; each result is applied on the EDT as soon as it is ready
+    private void startLoading() {
+        // Each snapshot is combined with the change-log records written after its last checkpoint
+        recovery = io.submit("wal_" + username + ".log", changeLog::recover);
+
+        onLoaded(io.submit(coursesFile, () -> traceLoad("courses", this::loadCoursesAndResources,
+                CourseRepository.CourseData::courseCount, coursesFile, resourcesFile)),
+                this::applyCourses, "courses");
+        onLoaded(recovery.thenCompose(log -> io.submit(deadlinesFile, () -> traceLoad("deadlines",
+                () -> replayList(deadlines.read(), log.get("deadlines"), Deadline::fromString), List::size, deadlinesFile))),
+                this::applyDeadlines, "deadlines");
+        // The journal keeps no record count, so its event only carries the size of the legacy file it may import
+        onLoaded(recovery.thenCompose(log -> io.submit(activitiesDir, () -> traceLoad("activities",
+                () -> openActivityJournal(log.get("activities")), opened -> 0, activitiesFile))),
+                this::applyActivities, "activities");
+        onLoaded(recovery.thenCompose(log -> io.submit(assessmentsFile, () -> traceLoad("assessments", () -> {
+                    store.importLegacyAssessments();
+                    return replayList(assessments.read(), log.get("assessments"), Assessment::fromString);
+                }, List::size, assessmentsFile))),
+                this::applyAssessments, "assessments");
+        onLoaded(recovery.thenCompose(log -> io.submit(eventsFile, () -> traceLoad("events", () -> {
+                    store.importLegacyEvents();
+                    return replayEvents(events.read(), log.get("events"));
+                }, Map::size, eventsFile))),
+                this::applyEvents, "events");
+    }
+
+    // Re-applies logged list edits: add appends, insert is "index|row", remove is an index
+    private static <T> List<T> replayList(List<T> list, List<MutationLog.Record> records, Function<String, T> parse) {
+        if (records == null) return list;
+        for (MutationLog.Record r : records) {
+            try {
+                switch (r.op) {
+                    case "add": {
+                        T item = parse.apply(r.payload);
+                        if (item != null) list.add(item);
+                        break;
+                    }
+                    case "insert": {
+                        String[] parts = r.payload.split("\\|", 2);
+                        T item = parse.apply(parts[1]);
+                        int index = Integer.parseInt(parts[0]);
+                        if (item != null && index <= list.size()) list.add(index, item);
+                        break;
+                    }
+                    case "remove": {
+                        int index = Integer.parseInt(r.payload);
+                        if (index < list.size()) list.remove(index);
+                        break;
                     }
                 }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error loading deadlines: " + e.getMessage());
+            } catch (RuntimeException ignored) {
+                // A record that no longer fits the snapshot is skipped rather than failing the load
             }
         }
+        return list;
     }
 
-    private void loadActivities() {
-        activities.clear();
-        File file = new File(activitiesFile);
-        if (file.exists()) {
-            try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    if (!line.trim().isEmpty()) {
-                        Activity activity = Activity.fromString(line.trim());
-                        if (activity != null) {
-                            activities.add(activity);
-                        }
-                    }
+    // Event records carry "date|title|type"
+    private static Map<LocalDate, List<CalendarEvent>> replayEvents(Map<LocalDate, List<CalendarEvent>> map, List<MutationLog.Record> records) {
+        if (records == null) return map;
+        for (MutationLog.Record r : records) {
+            CalendarEvent event = CalendarEvent.fromString(r.payload);
+            if (event == null) continue;
+            if (r.op.equals("add")) {
+                map.computeIfAbsent(event.date, k -> new ArrayList<>()).add(event);
+            } else if (r.op.equals("remove")) {
+                List<CalendarEvent> dayEvents = map.get(event.date);
+                if (dayEvents != null) {
+                    dayEvents.removeIf(ev -> ev.title.equals(event.title) && ev.type.equalsIgnoreCase(event.type));
+                    if (dayEvents.isEmpty()) map.remove(event.date);
                 }
-            } catch (IOException e) {
-                JOptionPane.showMessageDialog(this, "Error loading activities: " + e.getMessage());
             }
         }
+        return map;
     }
 
-    private void saveCourses() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(coursesFile))) {
-            for (int i = 0; i < courseListModel.size(); i++) {
-                bw.write(courseListModel.get(i));
-                bw.newLine();
-            }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error saving courses: " + e.getMessage());
+    // True if the section picked up log records from an earlier session; its snapshot is then
+    // rewritten so the next checkpoint can trim the log. Only called after the section has loaded.
+    private boolean replayed(String entity) {
+        return recovery.join().containsKey(entity);
+    }
+
+    // Makes every pending change durable; used on logout and window close.
+    // Joining on the EDT is deliberate here: the window is going away and must not lose writes.
+    private void flushAll() {
+        persistence.flush();
+        checkpoints.flush();
+        if (journal != null) {
+            io.submit(activitiesDir, () -> {
+                journal.close();
+                return null;
+            });
         }
+        io.drain().join();
+        changeLog.close();
     }
 
-    private void saveResources() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(resourcesFile))) {
-            for (String course : courseResourcesMap.keySet()) {
-                DefaultListModel<Resource> resources = courseResourcesMap.get(course);
-                for (int i = 0; i < resources.size(); i++) {
-                    Resource r = resources.get(i);
-                    bw.write(course + "|" + r.name + "|" + r.type + "|" + r.pathOrUrl);
-                    bw.newLine();
-                }
+    // Flushes, then lets go of everything that would outlive the window: timers, the I/O
+    // threads and the gauges, which would otherwise keep this dashboard reachable after logout
+    private void close() {
+        flushAll();
+        dayRollover.stop();
+        reminderClock.stop();
+        prewarm.stop();
+        showBusy.stop();
+        clearStatus.stop();
+        Metrics.removeGauges("dashboard.");
+        io.shutdown();
+        dispose();
+    }
+
+    // Returns a snapshot callback that advances the entity's checkpoint to everything logged so far
+    private Supplier<Runnable> checkpoint(String entity) {
+        return () -> {
+            long lsn = changeLog.lastAssignedLsn();
+            return () -> changeLog.markCheckpointed(entity, lsn);
+        };
+    }
+
+    private <T> void onLoaded(CompletableFuture<T> future, Consumer<T> apply, String what) {
+        future.whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                showStatusError("Error loading " + what + ": " + IoExecutor.rootMessage(error));
+                return;
             }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error saving resources: " + e.getMessage());
-        }
+            apply.accept(result);
+        }, SwingUtilities::invokeLater);
     }
 
-    private void saveDeadlines() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(deadlinesFile))) {
-            for (Deadline deadline : deadlines) {
-                bw.write(deadline.toString());
-                bw.newLine();
+    // Record counts and file sizes for this user; gauges are read on the JMX thread, so they only
+    // look at sizes and never walk the models
+    private void registerGauges() {
+        Metrics.gauge("dashboard.records.courses", courseListModel::getSize);
+        Metrics.gauge("dashboard.records.deadlines", () -> deadlines.size());
+        Metrics.gauge("dashboard.records.assessments", () -> assessments.size());
+        Metrics.gauge("dashboard.records.resources", () -> resourceCount);
+        Metrics.gauge("dashboard.fileBytes.courses", () -> new File(coursesFile).length());
+        Metrics.gauge("dashboard.fileBytes.resources", () -> new File(resourcesFile).length());
+        Metrics.gauge("dashboard.fileBytes.deadlines", () -> new File(deadlinesFile).length());
+        Metrics.gauge("dashboard.fileBytes.assessments", () -> new File(assessmentsFile).length());
+        Metrics.gauge("dashboard.fileBytes.events", () -> new File(eventsFile).length());
+        Metrics.gauge("dashboard.fileBytes.activities", () -> {
+            File[] segments = new File(activitiesDir).listFiles();
+            long total = 0;
+            if (segments != null) {
+                for (File segment : segments) total += segment.length();
             }
-        } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error saving deadlines: " + e.getMessage());
+            return total;
+        });
+    }
+
+    private CourseRepository.CourseData loadCoursesAndResources() {
+        long t = loadCoursesTimer.start();
+        try {
+            return store.courses().read();
+        } finally {
+            loadCoursesTimer.stop(t);
         }
     }
 
-    private void saveActivities() {
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(activitiesFile))) {
-            for (Activity activity : activities) {
-                bw.write(activity.toString());
-                bw.newLine();
-            }
+    // Opens the journal, migrating the old activities_<user>.txt (plus any change-log records
+    // still pending for it) the first time
+    private ActivityJournal openActivityJournal(List<MutationLog.Record> logged) {
+        try {
+            return store.openActivities(legacy -> replayList(legacy, logged, Activity::fromString));
         } catch (IOException e) {
-            JOptionPane.showMessageDialog(this, "Error saving activities: " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The apply* methods run on the EDT. Anything the user added while loading is kept
+    // alongside the loaded rows and written back once the section is complete.
+    private void applyCourses(CourseRepository.CourseData data) {
+        boolean edited = !courseListModel.isEmpty();
+        store.courses().merge(data);
+        courseListModel.clear();
+        courseListModel.addAll(store.courses().courses());
+        coursesLoaded = true;
+        if (edited) {
+            saveCourses();
+            saveResources();
         }
+        updateDashboardData();
+    }
+
+    private void applyDeadlines(List<Deadline> loaded) {
+        boolean edited = !deadlines.isEmpty() || replayed("deadlines");
+        deadlines.merge(loaded);
+        deadlinesLoaded = true;
+        for (Deadline deadline : loaded) reminders.add(deadline);
+        if (edited) saveDeadlines();
+        updateDashboardData();
+    }
+
+    private void applyActivities(ActivityJournal loaded) {
+        journal = loaded;
+        activitiesLoaded = true;
+        for (Activity activity : pendingActivities) {
+            addActivity(activity);
+        }
+        pendingActivities.clear();
+        // Old activity records in the change log are now part of the journal
+        if (replayed("activities")) {
+            changeLog.markCheckpointed("activities", changeLog.lastAssignedLsn());
+        }
+        refreshActivityPanel();
+    }
+
+    private void applyAssessments(List<Assessment> loaded) {
+        boolean edited = !assessments.isEmpty() || replayed("assessments");
+        assessments.merge(loaded);
+        assessmentsLoaded = true;
+        for (Assessment assessment : loaded) reminders.add(assessment);
+        if (edited) saveAssessments();
+        refreshAssessmentStatuses();
+        updateDashboardCompletionRate();
+    }
+
+    private void applyEvents(Map<LocalDate, List<CalendarEvent>> loaded) {
+        boolean edited = !events.isEmpty() || replayed("events");
+        events.merge(loaded);
+        eventsLoaded = true;
+        for (List<CalendarEvent> dayEvents : loaded.values()) {
+            for (CalendarEvent event : dayEvents) reminders.add(event);
+        }
+        if (edited) saveEvents();
+        updateCalendar(calendarGridPanel, calendarMonthLabel, events, calendarCurrentMonth);
+    }
+
+    // The save* methods only mark a file dirty; WriteBehindStore snapshots and writes it shortly after
+    // Records an activity as the newest journal entry; one small append however long the history is.
+    // Journal access is queued on the journal's key, so a refresh submitted afterwards sees it.
+    private void addActivity(Activity activity) {
+        if (!activitiesLoaded) {
+            pendingActivities.add(activity);
+            return;
+        }
+        String line = activity.toString();
+        io.submit(activitiesDir, "saving activities", () -> journal.append(line), id -> { });
+    }
+
+    private void saveCourses() {
+        if (!coursesLoaded) return;
+        persistence.markDirty(coursesFile, "courses", store.courses()::courseLines);
+    }
+
+    private void saveResources() {
+        if (!coursesLoaded) return;
+        persistence.markDirty(resourcesFile, "resources", () -> {
+            // Times the snapshot on the EDT; the write itself is timed as dashboard.write.resources
+            long t = saveResourcesTimer.start();
+            List<String> lines = store.courses().resourceLines();
+            saveResourcesTimer.stop(t);
+            return lines;
+        });
+    }
+
+    private void saveDeadlines() {
+        if (!deadlinesLoaded) return;
+        checkpoints.markDirty(deadlinesFile, "deadlines", deadlines::lines, checkpoint("deadlines"));
     }
 
     // --- UI Creation methods remain the same until createStatsPanel ---
@@ -348,8 +579,7 @@ public class Dashboard extends JFrame {
                     saveCourses();
                     saveResources();
                     saveDeadlines();
-                    saveActivities();
-                    dispose();
+                    close();
                     new Login();
                 } else {
                     showPage(text);
@@ -380,6 +610,45 @@ public class Dashboard extends JFrame {
         return topPanel;
     }
 
+    // Bottom strip with a busy indicator for background I/O and the latest background error
+    private JPanel createStatusBar() {
+        JPanel statusBar = new JPanel(new BorderLayout(10, 0));
+        statusBar.setBackground(new Color(240, 240, 240));
+        statusBar.setBorder(BorderFactory.createEmptyBorder(4, 20, 4, 20));
+
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        statusLabel.setForeground(new Color(244, 67, 54));
+        statusBar.add(statusLabel, BorderLayout.CENTER);
+
+        busyIndicator = new JProgressBar();
+        busyIndicator.setIndeterminate(true);
+        busyIndicator.setPreferredSize(new Dimension(120, 12));
+        busyIndicator.setToolTipText("Saving...");
+        busyIndicator.setVisible(false);
+        statusBar.add(busyIndicator, BorderLayout.EAST);
+
+        // Only show the indicator for work that takes long enough to notice, so quick saves don't flicker
+        showBusy.setRepeats(false);
+        clearStatus.setRepeats(false);
+        io.setBusyListener(busy -> {
+            if (busy) {
+                showBusy.restart();
+            } else {
+                showBusy.stop();
+                busyIndicator.setVisible(false);
+            }
+        });
+        return statusBar;
+    }
+
+    private void showStatusError(String message) {
+        if (statusLabel == null) return;
+        statusLabel.setText(message);
+        statusLabel.setToolTipText(message);
+        clearStatus.restart();
+    }
+
     private JLabel createColorPanel(String text, Color bgColor) {
         JLabel label = new JLabel(text, SwingConstants.CENTER);
         label.setOpaque(true);
@@ -465,16 +734,16 @@ public class Dashboard extends JFrame {
         statsPanel.setBackground(new Color(245, 247, 250));
 
         // Course Stats Card
-        JPanel coursesCard = createStatCard("📚", "Total Courses", "0", new Color(76, 175, 80), 0);
+        JPanel coursesCard = createStatCard("📚", "Total Courses", "…", new Color(76, 175, 80), 0);
 
         // Resources Stats Card
-        JPanel resourcesCard = createStatCard("📄", "Study Resources", "0", new Color(33, 150, 243), 0);
+        JPanel resourcesCard = createStatCard("📄", "Study Resources", "…", new Color(33, 150, 243), 0);
 
         // Assessments Stats Card
-        JPanel assessmentsCard = createStatCard("📝", "Due This Week", "0", new Color(255, 152, 0), 0);
+        JPanel assessmentsCard = createStatCard("📝", "Due This Week", "…", new Color(255, 152, 0), 0);
 
         // Progress Stats Card - Completion Rate
-        JPanel progressCard = createStatCard("⭐", "Completion Rate", "0%", new Color(156, 39, 176), 0); // Initial 0%
+        JPanel progressCard = createStatCard("⭐", "Completion Rate", "…", new Color(156, 39, 176), 0); // Filled in once assessments load
 
         statsPanel.add(coursesCard);
         statsPanel.add(resourcesCard);
@@ -624,7 +893,10 @@ public class Dashboard extends JFrame {
             boolean urgent = urgentCheck.isSelected();
 
             if (!title.isEmpty() && !dueDate.isEmpty()) {
-                deadlines.add(new Deadline(title, dueDate, type, urgent));
+                Deadline deadline = new Deadline(title, dueDate, type, urgent);
+                deadlines.add(deadline);
+                reminders.add(deadline);
+                changeLog.append("deadlines", "add", deadline.toString());
                 saveDeadlines();
                 updateDashboardData();
                 refreshDeadlinesPanel();
@@ -658,8 +930,7 @@ public class Dashboard extends JFrame {
             String color = colors[colorCombo.getSelectedIndex()];
 
             if (!description.isEmpty()) {
-                activities.add(new Activity(description, time, icon, color));
-                saveActivities();
+                addActivity(new Activity(description, time, icon, color));
                 refreshActivityPanel();
             }
         }
@@ -773,7 +1044,8 @@ public class Dashboard extends JFrame {
         deleteBtn.addActionListener(e -> {
             int selectedIndex = list.getSelectedIndex();
             if (selectedIndex >= 0) {
-                deadlines.remove(selectedIndex);
+                reminders.remove(deadlines.remove(selectedIndex));
+                changeLog.append("deadlines", "remove", String.valueOf(selectedIndex));
                 listModel.remove(selectedIndex);
                 saveDeadlines();
                 updateDashboardData();
@@ -790,14 +1062,31 @@ public class Dashboard extends JFrame {
         dialog.setVisible(true);
     }
 
+    private static final int ACTIVITY_PAGE_SIZE = 200;
+
     private void showManageActivitiesDialog() {
         JDialog dialog = new JDialog(this, "Manage Activities", true);
         dialog.setLayout(new BorderLayout());
 
+        // History is paged in from the journal rather than listed all at once
         DefaultListModel<String> listModel = new DefaultListModel<>();
-        for (Activity activity : activities) {
-            listModel.addElement(activity.description + " - " + activity.time);
-        }
+        List<Long> ids = new ArrayList<>();
+        JButton loadMoreBtn = new JButton("Load More");
+        Runnable loadPage = () -> {
+            if (!activitiesLoaded) return;
+            loadMoreBtn.setEnabled(false);
+            int offset = ids.size();
+            io.submit(activitiesDir, "loading activities", () -> journal.page(offset, ACTIVITY_PAGE_SIZE), page -> {
+                for (ActivityJournal.Entry entry : page) {
+                    Activity activity = entry.activity();
+                    ids.add(entry.id);
+                    listModel.addElement(activity != null ? activity.description + " - " + activity.time : entry.line);
+                }
+                loadMoreBtn.setEnabled(page.size() == ACTIVITY_PAGE_SIZE);
+            });
+        };
+        loadPage.run();
+        loadMoreBtn.addActionListener(e -> loadPage.run());
 
         JList<String> list = new JList<>(listModel);
         JScrollPane scrollPane = new JScrollPane(list);
@@ -808,13 +1097,16 @@ public class Dashboard extends JFrame {
         deleteBtn.addActionListener(e -> {
             int selectedIndex = list.getSelectedIndex();
             if (selectedIndex >= 0) {
-                activities.remove(selectedIndex);
+                long id = ids.remove(selectedIndex);
                 listModel.remove(selectedIndex);
-                saveActivities();
-                refreshActivityPanel();
+                io.submit(activitiesDir, "saving activities", () -> {
+                    journal.delete(id);
+                    return null;
+                }, ignored -> refreshActivityPanel());
             }
         });
 
+        buttonPanel.add(loadMoreBtn);
         buttonPanel.add(deleteBtn);
 
         dialog.add(scrollPane, BorderLayout.CENTER);
@@ -865,18 +1157,24 @@ public class Dashboard extends JFrame {
 
     private void refreshDeadlinesPanel() {
         if (deadlinesContentPanel != null) {
+            FlightEvents.Render render = new FlightEvents.Render();
+            render.begin();
             deadlinesContentPanel.removeAll();
+            // The 5 soonest from today; overdue ones drop out once their day has passed
+            List<Deadline> soonest = deadlinesLoaded ? deadlines.soonest(LocalDate.now(), 5) : List.of();
 
-            if (deadlines.isEmpty()) {
+            if (!deadlinesLoaded) {
+                deadlinesContentPanel.add(createLoadingLabel("Loading deadlines..."));
+            } else if (soonest.isEmpty()) {
                 JLabel noDeadlinesLabel = new JLabel("No upcoming deadlines");
                 noDeadlinesLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
                 noDeadlinesLabel.setForeground(new Color(136, 136, 136));
                 deadlinesContentPanel.add(noDeadlinesLabel);
             } else {
-                for (int i = 0; i < Math.min(deadlines.size(), 5); i++) { // Show only first 5
-                    Deadline deadline = deadlines.get(i);
+                for (int i = 0; i < soonest.size(); i++) {
+                    Deadline deadline = soonest.get(i);
                     deadlinesContentPanel.add(createDeadlineItem(deadline.title, deadline.dueDate, deadline.type, deadline.urgent));
-                    if (i < Math.min(deadlines.size(), 5) - 1) {
+                    if (i < soonest.size() - 1) {
                         deadlinesContentPanel.add(Box.createRigidArea(new Dimension(0, 8)));
                     }
                 }
@@ -884,6 +1182,7 @@ public class Dashboard extends JFrame {
 
             deadlinesContentPanel.revalidate();
             deadlinesContentPanel.repaint();
+            commitRender(render, "deadlinesPanel", deadlinesContentPanel.getComponentCount());
         }
     }
 
@@ -945,17 +1244,31 @@ public class Dashboard extends JFrame {
     }
 
     private void refreshActivityPanel() {
+        if (activityContentPanel == null) return;
+        if (!activitiesLoaded) {
+            renderActivityPanel(Collections.emptyList());
+            return;
+        }
+        io.submit(activitiesDir, "loading activities", () -> journal.newest(6), this::renderActivityPanel); // Show only newest 6
+    }
+
+    private void renderActivityPanel(List<ActivityJournal.Entry> recent) {
         if (activityContentPanel != null) {
+            FlightEvents.Render render = new FlightEvents.Render();
+            render.begin();
             activityContentPanel.removeAll();
 
-            if (activities.isEmpty()) {
+            if (!activitiesLoaded) {
+                activityContentPanel.add(createLoadingLabel("Loading activities..."));
+            } else if (recent.isEmpty()) {
                 JLabel noActivityLabel = new JLabel("No recent activities");
                 noActivityLabel.setFont(new Font("Segoe UI", Font.ITALIC, 14));
                 noActivityLabel.setForeground(new Color(136, 136, 136));
                 activityContentPanel.add(noActivityLabel);
             } else {
-                for (int i = 0; i < Math.min(activities.size(), 6); i++) { // Show only first 6
-                    Activity activity = activities.get(i);
+                for (int i = 0; i < recent.size(); i++) {
+                    Activity activity = recent.get(i).activity();
+                    if (activity == null) continue;
                     String[] colorParts = activity.color.split(",");
                     Color iconColor = new Color(
                             Integer.parseInt(colorParts[0]),
@@ -963,7 +1276,7 @@ public class Dashboard extends JFrame {
                             Integer.parseInt(colorParts[2])
                     );
                     activityContentPanel.add(createActivityItem(activity.description, activity.time, activity.icon, iconColor));
-                    if (i < Math.min(activities.size(), 6) - 1) {
+                    if (i < recent.size() - 1) {
                         activityContentPanel.add(Box.createRigidArea(new Dimension(0, 8)));
                     }
                 }
@@ -971,9 +1284,17 @@ public class Dashboard extends JFrame {
 
             activityContentPanel.revalidate();
             activityContentPanel.repaint();
+            commitRender(render, "activityPanel", recent.size());
         }
     }
 
+    private JLabel createLoadingLabel(String text) {
+        JLabel label = new JLabel(text);
+        label.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+        label.setForeground(new Color(170, 170, 170));
+        return label;
+    }
+
     private JPanel createActivityItem(String title, String time, String icon, Color iconColor) {
         JPanel item = new JPanel(new BorderLayout());
         item.setBackground(Color.WHITE);
@@ -1062,79 +1383,77 @@ public class Dashboard extends JFrame {
     }
 
     private void updateDashboardData() {
-        // Update courses count
-        int courseCount = courseListModel.getSize();
-        if (totalCoursesValue != null) {
-            totalCoursesValue.setText(String.valueOf(courseCount));
-            totalCoursesProgress.setValue(Math.min(courseCount * 20, 100)); // Max 5 courses for 100%
-        }
+        long t = updateDashboardTimer.start();
+        try {
+            // Update courses count
+            int courseCount = courseListModel.getSize();
+            if (totalCoursesValue != null && coursesLoaded) {
+                totalCoursesValue.setText(String.valueOf(courseCount));
+                totalCoursesProgress.setValue(Math.min(courseCount * 20, 100)); // Max 5 courses for 100%
+            }
 
-        // Update resources count
-        int totalResources = courseResourcesMap.values().stream().mapToInt(DefaultListModel::getSize).sum();
-        if (studyResourcesValue != null) {
-            studyResourcesValue.setText(String.valueOf(totalResources));
-            studyResourcesProgress.setValue(Math.min(totalResources * 10, 100)); // Max 10 resources for 100%
-        }
+            // Update resources count
+            int totalResources = store.courses().resourceCount();
+            resourceCount = totalResources;
+            if (studyResourcesValue != null && coursesLoaded) {
+                studyResourcesValue.setText(String.valueOf(totalResources));
+                studyResourcesProgress.setValue(Math.min(totalResources * 10, 100)); // Max 10 resources for 100%
+            }
 
-        // Calculate deadlines due this week
-        int weeklyDeadlines = calculateWeeklyDeadlines();
-        if (dueThisWeekValue != null) {
-            dueThisWeekValue.setText(String.valueOf(weeklyDeadlines));
-            dueThisWeekProgress.setValue(Math.min(weeklyDeadlines * 25, 100)); // Max 4 deadlines for 100%
-        }
+            showWeeklyDeadlines();
 
-        // Update courses text area
-        StringBuilder coursesText = new StringBuilder();
-        if (courseListModel.isEmpty()) {
-            coursesText.append("No courses added yet. Click 'Add Course' to get started!");
-        } else {
-            for (int i = 0; i < courseListModel.size(); i++) {
-                coursesText.append("• ").append(courseListModel.get(i)).append("\n");
+            // Update courses text area
+            StringBuilder coursesText = new StringBuilder();
+            if (!coursesLoaded) {
+                coursesText.append("Loading courses...");
+            } else if (courseListModel.isEmpty()) {
+                coursesText.append("No courses added yet. Click 'Add Course' to get started!");
+            } else {
+                for (int i = 0; i < courseListModel.size(); i++) {
+                    coursesText.append("• ").append(courseListModel.get(i)).append("\n");
+                }
             }
-        }
-        dashboardMyCoursesArea.setText(coursesText.toString());
-
-        // Update resources text area
-        StringBuilder resourcesText = new StringBuilder();
-        if (totalResources == 0) {
-            resourcesText.append("No resources added yet. Add courses and resources to see them here!");
-        } else {
-            int count = 0;
-            for (String course : courseResourcesMap.keySet()) {
-                DefaultListModel<Resource> resources = courseResourcesMap.get(course);
-                for (int i = 0; i < resources.size() && count < 10; i++, count++) { // Show max 10 resources
-                    resourcesText.append("• ").append(resources.get(i).toString())
-                            .append(" (").append(course).append(")").append("\n");
+            dashboardMyCoursesArea.setText(coursesText.toString());
+
+            // Update resources text area
+            StringBuilder resourcesText = new StringBuilder();
+            if (!coursesLoaded) {
+                resourcesText.append("Loading resources...");
+            } else if (totalResources == 0) {
+                resourcesText.append("No resources added yet. Add courses and resources to see them here!");
+            } else {
+                int count = 0;
+                for (String course : store.courses().courses()) {
+                    List<Resource> resources = store.courses().resources(course);
+                    for (int i = 0; i < resources.size() && count < 10; i++, count++) { // Show max 10 resources
+                        resourcesText.append("• ").append(resources.get(i).toString())
+                                .append(" (").append(course).append(")").append("\n");
+                    }
+                    if (count >= 10) break;
                 }
-                if (count >= 10) break;
             }
+            dashboardResourcesDueArea.setText(resourcesText.toString());
+
+            // Refresh dynamic panels
+            refreshDeadlinesPanel();
+            refreshActivityPanel();
+    
+        } finally {
+            updateDashboardTimer.stop(t);
         }
-        dashboardResourcesDueArea.setText(resourcesText.toString());
-
-        // Refresh dynamic panels
-        refreshDeadlinesPanel();
-        refreshActivityPanel();
     }
 
-    private int calculateWeeklyDeadlines() {
-        LocalDate today = LocalDate.now();
-        LocalDate weekEnd = today.plusDays(7);
-
-        int weeklyCount = 0;
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        for (Deadline deadline : deadlines) {
-            try {
-                LocalDate dueDate = LocalDate.parse(deadline.dueDate, formatter);
-                if (!dueDate.isBefore(today) && !dueDate.isAfter(weekEnd)) {
-                    weeklyCount++;
-                }
-            } catch (DateTimeParseException e) {
-                // Skip invalid dates
-            }
+    // Calculate deadlines due this week
+    private void showWeeklyDeadlines() {
+        int weeklyDeadlines = calculateWeeklyDeadlines();
+        if (dueThisWeekValue != null && deadlinesLoaded) {
+            dueThisWeekValue.setText(String.valueOf(weeklyDeadlines));
+            dueThisWeekProgress.setValue(Math.min(weeklyDeadlines * 25, 100)); // Max 4 deadlines for 100%
         }
+    }
 
-        return weeklyCount;
+    private int calculateWeeklyDeadlines() {
+        return deadlines.countDueWithin(LocalDate.now(), 7);
     }
 
     private JPanel createCoursesPanel() {
@@ -1226,11 +1545,8 @@ public class Dashboard extends JFrame {
             if (!e.getValueIsAdjusting()) {
                 String selectedCourse = coursesList.getSelectedValue();
                 resourcesModel.clear();
-                if (selectedCourse != null && courseResourcesMap.containsKey(selectedCourse)) {
-                    DefaultListModel<Resource> resList = courseResourcesMap.get(selectedCourse);
-                    for (int i = 0; i < resList.size(); i++) {
-                        resourcesModel.addElement(resList.get(i));
-                    }
+                if (selectedCourse != null) {
+                    resourcesModel.addAll(store.courses().resources(selectedCourse));
                 }
             }
         });
@@ -1238,19 +1554,17 @@ public class Dashboard extends JFrame {
         addCourseBtn.addActionListener(e -> {
             String newCourse = JOptionPane.showInputDialog(this, "Enter Course Name:");
             if (newCourse != null && !newCourse.trim().isEmpty()) {
-                if (courseListModel.contains(newCourse.trim())) {
+                if (!store.courses().addCourse(newCourse.trim())) {
                     JOptionPane.showMessageDialog(this, "Course already exists!", "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 courseListModel.addElement(newCourse.trim());
-                courseResourcesMap.put(newCourse.trim(), new DefaultListModel<>());
                 saveCourses();
                 saveResources();
                 updateDashboardData();
 
                 // Add activity for course addition
-                activities.add(0, new Activity("Added new course: " + newCourse.trim(), "Just now", "+", "76,175,80"));
-                saveActivities();
+                addActivity(new Activity("Added new course: " + newCourse.trim(), "Just now", "+", "76,175,80"));
             }
         });
 
@@ -1262,23 +1576,19 @@ public class Dashboard extends JFrame {
             }
             String newName = JOptionPane.showInputDialog(this, "Edit Course Name:", selectedCourse);
             if (newName != null && !newName.trim().isEmpty()) {
-                if (courseListModel.contains(newName.trim()) && !newName.trim().equals(selectedCourse)) {
+                if (!store.courses().renameCourse(selectedCourse, newName.trim())) {
                     JOptionPane.showMessageDialog(this, "Course name already exists!", "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 int idx = courseListModel.indexOf(selectedCourse);
                 courseListModel.set(idx, newName.trim());
 
-                DefaultListModel<Resource> res = courseResourcesMap.remove(selectedCourse);
-                courseResourcesMap.put(newName.trim(), res);
-
                 saveCourses();
                 saveResources();
                 updateDashboardData();
 
                 // Add activity for course edit
-                activities.add(0, new Activity("Updated course: " + newName.trim(), "Just now", "✏", "33,150,243"));
-                saveActivities();
+                addActivity(new Activity("Updated course: " + newName.trim(), "Just now", "✏", "33,150,243"));
             }
         });
 
@@ -1290,16 +1600,15 @@ public class Dashboard extends JFrame {
             }
             int confirm = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete course: " + selectedCourse + " ?", "Confirm", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
+                store.courses().removeCourse(selectedCourse);
                 courseListModel.removeElement(selectedCourse);
-                courseResourcesMap.remove(selectedCourse);
                 resourcesModel.clear();
                 saveCourses();
                 saveResources();
                 updateDashboardData();
 
                 // Add activity for course deletion
-                activities.add(0, new Activity("Deleted course: " + selectedCourse, "Just now", "✓", "244,67,54"));
-                saveActivities();
+                addActivity(new Activity("Deleted course: " + selectedCourse, "Just now", "✓", "244,67,54"));
             }
         });
 
@@ -1335,16 +1644,14 @@ public class Dashboard extends JFrame {
                 }
 
                 Resource newResource = new Resource(rName, rType, rPath);
-                DefaultListModel<Resource> resources = courseResourcesMap.get(selectedCourse);
-                resources.addElement(newResource);
+                store.courses().addResource(selectedCourse, newResource);
                 resourcesModel.addElement(newResource);
 
                 saveResources();
                 updateDashboardData();
 
                 // Add activity for resource addition
-                activities.add(0, new Activity("Added new resource: " + rName, "Just now", "+", "76,175,80"));
-                saveActivities();
+                addActivity(new Activity("Added new resource: " + rName, "Just now", "+", "76,175,80"));
             }
         });
 
@@ -1357,15 +1664,13 @@ public class Dashboard extends JFrame {
             }
             int confirm = JOptionPane.showConfirmDialog(this, "Delete resource: " + selectedResource.name + "?", "Confirm", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
-                DefaultListModel<Resource> resources = courseResourcesMap.get(selectedCourse);
-                resources.removeElement(selectedResource);
+                store.courses().removeResource(selectedCourse, selectedResource);
                 resourcesModel.removeElement(selectedResource);
                 saveResources();
                 updateDashboardData();
 
                 // Add activity for resource deletion
-                activities.add(0, new Activity("Deleted resource: " + selectedResource.name, "Just now", "✓", "244,67,54"));
-                saveActivities();
+                addActivity(new Activity("Deleted resource: " + selectedResource.name, "Just now", "✓", "244,67,54"));
             }
         });
 
@@ -1384,8 +1689,9 @@ public class Dashboard extends JFrame {
         return panel;
     }
 
+    // Desktop.browse/open can block for seconds (slow shares, browser start-up), so it runs on the I/O executor
     private void openResource(Resource resource) {
-        try {
+        io.submit(null, "opening resource", () -> {
             Desktop desktop = Desktop.getDesktop();
             String pathOrUrl = resource.pathOrUrl;
 
@@ -1402,12 +1708,14 @@ public class Dashboard extends JFrame {
                     desktop.browse(new URI(pathOrUrl));
                 }
             }
-        } catch (Exception ex) {
-            JOptionPane.showMessageDialog(this, "Failed to open resource: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-        }
+            return null;
+        }, ignored -> { });
     }
 
-    private void updateCalendar(JPanel calendarGrid, JLabel monthLabel, Map<LocalDate, List<String[]>> events) {
+    private void updateCalendar(JPanel calendarGrid, JLabel monthLabel, EventRepository events) {
+        if (calendarGrid == null) return;
+        FlightEvents.Render render = new FlightEvents.Render();
+        render.begin();
         calendarGrid.removeAll();
 
         LocalDate now = LocalDate.now();
@@ -1451,15 +1759,15 @@ public class Dashboard extends JFrame {
                 dayButton.setForeground(Color.BLACK);
             }
 
-            if (events.containsKey(date)) {
-                for (String[] evt : events.get(date)) {
-                    switch (evt[1].toLowerCase()) {
+            if (events.hasEvents(date)) {
+                for (CalendarEvent evt : events.on(date)) {
+                    switch (evt.type.toLowerCase()) {
                         case "quiz": dayButton.setBackground(new Color(255, 223, 186)); break;
                         case "mid": dayButton.setBackground(new Color(186, 255, 201)); break;
                         case "lab": dayButton.setBackground(new Color(186, 225, 255)); break;
                         case "exam": dayButton.setBackground(new Color(255, 186, 186)); break;
                     }
-                    dayButton.setToolTipText(evt[0] + " (" + evt[1] + ")");
+                    dayButton.setToolTipText(evt.title + " (" + evt.type + ")");
                 }
             }
             calendarGrid.add(dayButton);
@@ -1467,6 +1775,7 @@ public class Dashboard extends JFrame {
 
         calendarGrid.revalidate();
         calendarGrid.repaint();
+        commitRender(render, "calendar", events.dayCount());
     }
 
     // --- Placeholder panels for other pages ---
@@ -1476,15 +1785,28 @@ public class Dashboard extends JFrame {
 
         JLabel title = new JLabel("Assessments", SwingConstants.CENTER);
         title.setFont(new Font("Segoe UI", Font.BOLD, 34));
-        panel.add(title, BorderLayout.NORTH);
+        JPanel header = new JPanel(new BorderLayout(0, 10));
+        header.add(title, BorderLayout.NORTH);
+        header.add(createAssessmentFilterBar(), BorderLayout.SOUTH);
+        panel.add(header, BorderLayout.NORTH);
 
-        assessmentListModel = new DefaultListModel<>();
         assessmentList = new JList<>(assessmentListModel);
         assessmentList.setFont(new Font("Segoe UI", Font.BOLD, 22));
+        // Rows are formatted only when painted
+        assessmentList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value,
+                                                          int index, boolean isSelected, boolean cellHasFocus) {
+                Assessment a = (Assessment) value;
+                String text = "• " + a.title + " | " + a.course + " | Due: " + a.dueDate() + " | Status: " + a.statusLabel(assessmentListModel.today);
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        // A fixed cell size lets the list lay out without measuring every row
+        assessmentList.setPrototypeCellValue(new Assessment("A typical assessment title", "Course name", "2025-01-01"));
         JScrollPane scrollPane = new JScrollPane(assessmentList);
 
-        // Load assessments from file
-        assessmentDataList = loadAssessmentsFromFile();
+        // Assessments arrive from the background loader; show what we have so far
         refreshAssessmentStatuses(); // update statuses and list model
 
         JPanel buttonsPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 30, 10));
@@ -1530,21 +1852,24 @@ public class Dashboard extends JFrame {
 
                 LocalDate dueDate;
                 try {
-                    dueDate = LocalDate.parse(d, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+                    dueDate = LocalDate.parse(d);
                 } catch (DateTimeParseException ex) {
                     JOptionPane.showMessageDialog(panel, "Invalid date format! Use yyyy-MM-dd.", "Error", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
 
-                String status = "Pending"; // default, will be refreshed
-                String[] newAssessment = new String[] {t, c, d, status};
-                assessmentDataList.add(newAssessment);
+                Assessment newAssessment = new Assessment(t, c, d);
+                assessments.add(newAssessment);
+                reminders.add(newAssessment);
+                changeLog.append("assessments", "add", newAssessment.toString());
 
-                saveAssessmentsToFile(assessmentDataList);
+                saveAssessments();
 
                 // Sync with calendar events
-                events.computeIfAbsent(dueDate, k -> new ArrayList<>()).add(new String[]{t, "Assessment"});
-                saveEvents(events);
+                CalendarEvent event = new CalendarEvent(dueDate, t, "Assessment");
+                events.add(event);
+                changeLog.append("events", "add", event.toString());
+                saveEvents();
 
                 refreshAssessmentStatuses();
                 updateDashboardCompletionRate();
@@ -1554,24 +1879,22 @@ public class Dashboard extends JFrame {
 
         // Delete Assessment action
         deleteBtn.addActionListener(e -> {
-            int idx = assessmentList.getSelectedIndex();
-            if (idx >= 0 && idx < assessmentDataList.size()) {
-                String[] removed = assessmentDataList.remove(idx);
+            Assessment removed = assessmentList.getSelectedValue();
+            int idx = removed == null ? -1 : assessments.remove(removed);
+            if (idx >= 0) {
+                reminders.remove(removed);
+                changeLog.append("assessments", "remove", String.valueOf(idx));
 
                 // Remove event from calendar
-                try {
-                    LocalDate dueDate = LocalDate.parse(removed[2], DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                    List<String[]> dayEvents = events.get(dueDate);
-                    if (dayEvents != null) {
-                        dayEvents.removeIf(ev -> ev[0].equals(removed[0]) && "Assessment".equalsIgnoreCase(ev[1]));
-                        if (dayEvents.isEmpty()) {
-                            events.remove(dueDate);
-                        }
-                        saveEvents(events);
+                if (removed.epochDay != Assessment.NO_DATE) {
+                    LocalDate dueDate = LocalDate.ofEpochDay(removed.epochDay);
+                    if (events.removeIf(dueDate, ev -> ev.title.equals(removed.title) && "Assessment".equalsIgnoreCase(ev.type))) {
+                        changeLog.append("events", "remove", dueDate + "|" + removed.title + "|Assessment");
+                        saveEvents();
                     }
-                } catch (DateTimeParseException ignored) { }
+                }
 
-                saveAssessmentsToFile(assessmentDataList);
+                saveAssessments();
                 refreshAssessmentStatuses();
                 updateDashboardCompletionRate();
                 updateCalendar(calendarGridPanel, calendarMonthLabel, events);
@@ -1584,94 +1907,196 @@ public class Dashboard extends JFrame {
     }
 
     private void refreshAssessmentStatuses() {
-        LocalDate today = LocalDate.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        long t = refreshAssessmentsTimer.start();
+        try {
+            LocalDate today = LocalDate.now();
+            int dueThisWeekCount = assessments.scanDue(today, a -> { }, a -> { });
 
-        assessmentListModel.clear();
+            updateAssessmentCourseFilter();
+            applyAssessmentFilter();
 
-        int dueThisWeekCount = 0;
+            // Update due this week stat card
+            if (dueThisWeekValue != null && dueThisWeekProgress != null && assessmentsLoaded) {
+                dueThisWeekValue.setText(String.valueOf(dueThisWeekCount));
+                dueThisWeekProgress.setValue(Math.min(dueThisWeekCount * 25, 100)); // assuming max 4 events = 100%
+            }
+    
+        } finally {
+            refreshAssessmentsTimer.stop(t);
+        }
+    }
 
-        for (int i = 0; i < assessmentDataList.size(); i++) {
-            String[] a = assessmentDataList.get(i);
+    private JPanel createAssessmentFilterBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 0));
+        assessmentCourseFilter = new JComboBox<>(new String[]{ALL_COURSES});
+        assessmentStatusFilter = new JComboBox<>(new String[]{"All statuses",
+                Assessment.Status.PENDING.label, Assessment.Status.IN_PROGRESS.label, Assessment.Status.COMPLETED.label});
+        assessmentFromFilter = new JTextField(9);
+        assessmentToFilter = new JTextField(9);
+        assessmentFromFilter.setToolTipText("yyyy-MM-dd, blank for no limit");
+        assessmentToFilter.setToolTipText("yyyy-MM-dd, blank for no limit");
+        assessmentSort = new JComboBox<>(new AssessmentQuery.Sort[]{AssessmentQuery.Sort.DUE,
+                AssessmentQuery.Sort.COURSE, AssessmentQuery.Sort.STATUS});
+        assessmentDescending = new JCheckBox("Descending");
+        assessmentMatchLabel = new JLabel();
+
+        ActionListener apply = e -> applyAssessmentFilter();
+        assessmentCourseFilter.addActionListener(apply);
+        assessmentStatusFilter.addActionListener(apply);
+        assessmentSort.addActionListener(apply);
+        assessmentDescending.addActionListener(apply);
+        DocumentListener typed = new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applyAssessmentFilter(); }
+            @Override public void removeUpdate(DocumentEvent e) { applyAssessmentFilter(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        };
+        assessmentFromFilter.getDocument().addDocumentListener(typed);
+        assessmentToFilter.getDocument().addDocumentListener(typed);
+
+        bar.add(new JLabel("Course:"));
+        bar.add(assessmentCourseFilter);
+        bar.add(new JLabel("Status:"));
+        bar.add(assessmentStatusFilter);
+        bar.add(new JLabel("Due from:"));
+        bar.add(assessmentFromFilter);
+        bar.add(new JLabel("to:"));
+        bar.add(assessmentToFilter);
+        bar.add(new JLabel("Sort by:"));
+        bar.add(assessmentSort);
+        bar.add(assessmentDescending);
+        bar.add(assessmentMatchLabel);
+        return bar;
+    }
+
+    // Course choices follow the courses that have assessments; the selection is kept if it still exists
+    private void updateAssessmentCourseFilter() {
+        if (assessmentCourseFilter == null) return;
+        List<String> courses = assessments.courses();
+        Object selected = assessmentCourseFilter.getSelectedItem();
+        courses.add(0, ALL_COURSES);
+        updatingAssessmentFilters = true;
+        try {
+            assessmentCourseFilter.setModel(new DefaultComboBoxModel<>(courses.toArray(new String[0])));
+            assessmentCourseFilter.setSelectedItem(courses.contains(selected) ? selected : ALL_COURSES);
+        } finally {
+            updatingAssessmentFilters = false;
+        }
+    }
+
+    // Runs the filter bar's query against the repository's indexes; cheap enough for every keystroke
+    private void applyAssessmentFilter() {
+        if (assessmentList == null || updatingAssessmentFilters) return;
+        long t = assessmentQueryTimer.start();
+        try {
+            LocalDate today = LocalDate.now();
+            String course = (String) assessmentCourseFilter.getSelectedItem();
+            AssessmentQuery query = new AssessmentQuery(ALL_COURSES.equals(course) ? null : course,
+                    Assessment.Status.of((String) assessmentStatusFilter.getSelectedItem()),
+                    filterDate(assessmentFromFilter), filterDate(assessmentToFilter),
+                    (AssessmentQuery.Sort) assessmentSort.getSelectedItem(), assessmentDescending.isSelected());
+            List<Assessment> rows = assessments.query(query, today);
+            assessmentListModel.setRows(rows, today.toEpochDay());
+            assessmentMatchLabel.setText(rows.size() + " of " + assessments.size());
+        } finally {
+            assessmentQueryTimer.stop(t);
+        }
+    }
+
+    // Blank means no limit; text that is not a date turns red and is ignored
+    private static LocalDate filterDate(JTextField field) {
+        String text = field.getText().trim();
+        LocalDate date = null;
+        if (!text.isEmpty()) {
             try {
-                LocalDate dueDate = LocalDate.parse(a[2], formatter);
-
-                // Update status based on due date
-                if (dueDate.isBefore(today)) {
-                    a[3] = "Completed";
-                } else if (dueDate.isEqual(today)) {
-                    a[3] = "In Progress";
-                    notifyAssessmentDue(a);
-                } else {
-                    a[3] = "Pending";
-                    if (dueDate.equals(today.plusDays(1))) {
-                        notifyAssessmentDueSoon(a);
-                    }
-                }
+                date = LocalDate.parse(text);
+            } catch (DateTimeParseException ignored) { }
+        }
+        field.setForeground(text.isEmpty() || date != null ? Color.BLACK : new Color(220, 53, 69));
+        return date;
+    }
 
-                // Count for Due This Week Stat card
-                if (!dueDate.isBefore(today) && !dueDate.isAfter(today.plusDays(7))) {
-                    dueThisWeekCount++;
-                }
+    // Rows of the current assessment query, swapped in whole on each filter change
+    private static class AssessmentListModel extends AbstractListModel<Assessment> {
+        private static final long serialVersionUID = 1L;
 
-                assessmentListModel.addElement("• " + a[0] + " | " + a[1] + " | Due: " + a[2] + " | Status: " + a[3]);
+        private List<Assessment> rows = List.of();
+        // Epoch day the statuses are shown for
+        long today;
 
-            } catch (DateTimeParseException ignored) {
-                assessmentListModel.addElement("• " + a[0] + " | " + a[1] + " | Due: " + a[2] + " | Status: " + a[3]);
-            }
+        void setRows(List<Assessment> rows, long today) {
+            int old = this.rows.size();
+            this.rows = rows;
+            this.today = today;
+            if (old > 0) fireIntervalRemoved(this, 0, old - 1);
+            if (!rows.isEmpty()) fireIntervalAdded(this, 0, rows.size() - 1);
         }
 
-        // Update due this week stat card
-        if (dueThisWeekValue != null && dueThisWeekProgress != null) {
-            dueThisWeekValue.setText(String.valueOf(dueThisWeekCount));
-            dueThisWeekProgress.setValue(Math.min(dueThisWeekCount * 25, 100)); // assuming max 4 events = 100%
+        // Same rows, statuses shown for another day; the list repaints only the visible cells
+        void dayChanged(long today) {
+            this.today = today;
+            if (!rows.isEmpty()) fireContentsChanged(this, 0, rows.size() - 1);
         }
-    }
 
-    private void notifyAssessmentDue(String[] assessment) {
-        // Popup reminder for due today
-        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
-                "Assessment Due Today: " + assessment[0],
-                "Reminder", JOptionPane.INFORMATION_MESSAGE));
-    }
+        @Override
+        public int getSize() {
+            return rows.size();
+        }
 
-    private void notifyAssessmentDueSoon(String[] assessment) {
-        // You can expand this into tray notification or dashboard notification later
-        System.out.println("Reminder: Assessment due tomorrow: " + assessment[0]);
+        @Override
+        public Assessment getElementAt(int index) {
+            return rows.get(index);
+        }
     }
 
-    private List<String[]> loadAssessmentsFromFile() {
-        List<String[]> list = new ArrayList<>();
-        File file = new File("data/assessments.txt");
-        if (!file.exists()) return list;
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String l;
-            while ((l = reader.readLine()) != null) {
-                String[] parts = l.split("\\|");
-                if (parts.length == 4) {
-                    list.add(parts);
+    // Only rows due on the days just crossed change status, and the due-day indexes find them,
+    // so each view is moved on from those instead of being rebuilt from every row
+    private void onDayRollover(LocalDate previous, LocalDate today) {
+        if (today.isBefore(previous)) {
+            // Clock set back: statuses run backwards, so count again
+            refreshAssessmentStatuses();
+            updateDashboardCompletionRate();
+            refreshDeadlinesPanel();
+            showWeeklyDeadlines();
+            return;
+        }
+        if (assessmentsLoaded) {
+            // Due from the day of the count up to yesterday: now Completed. Due today: now In
+            // Progress. A recount may already have run today, in which case there is nothing to add.
+            if (completedAsOf != null && completedAsOf.isBefore(today)) {
+                completedAssessments += assessments.dueBetween(completedAsOf, today.minusDays(1)).size();
+                completedAsOf = today;
+                showCompletionRate();
+            }
+            if (assessmentList != null) {
+                // A status filter or sort changes which rows are shown and where; otherwise repaint
+                if (assessmentStatusFilter.getSelectedIndex() > 0 || assessmentSort.getSelectedItem() == AssessmentQuery.Sort.STATUS) {
+                    applyAssessmentFilter();
+                } else {
+                    assessmentListModel.dayChanged(today.toEpochDay());
                 }
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
-        return list;
+        // Deadlines due before today drop out of both queries
+        refreshDeadlinesPanel();
+        showWeeklyDeadlines();
     }
 
-    private void saveAssessmentsToFile(List<String[]> list) {
-        try {
-            File dataDir = new File("data");
-            if (!dataDir.exists()) dataDir.mkdirs();
+    // Runs every second; reminders that come due together share one status-bar message
+    private void fireReminders() {
+        List<String> due = new ArrayList<>();
+        reminders.advance(System.currentTimeMillis(), (reminder, before) ->
+                due.add(reminder.kind + " \"" + reminder.title + "\" due in " + ReminderEngine.describe(before)));
+        if (due.isEmpty() || statusLabel == null) return;
+        String text = due.size() == 1 ? "Reminder: " + due.get(0)
+                : due.size() + " reminders: " + String.join("; ", due.subList(0, Math.min(3, due.size()))) + (due.size() > 3 ? "; ..." : "");
+        statusLabel.setText(text);
+        statusLabel.setToolTipText(String.join("; ", due));
+        clearStatus.restart();
+    }
 
-            try (PrintWriter writer = new PrintWriter(new FileWriter("data/assessments.txt"))) {
-                for (String[] a : list) {
-                    writer.println(String.join("|", a));
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private void saveAssessments() {
+        if (!assessmentsLoaded) return;
+        checkpoints.markDirty(assessmentsFile, "assessments", assessments::lines, checkpoint("assessments"));
     }
 
     private JPanel createClassesPanel() {
@@ -1704,9 +2129,7 @@ public class Dashboard extends JFrame {
         calendarGridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         panel.add(calendarGridPanel, BorderLayout.CENTER);
 
-        // Load events once
-        events = loadEvents();
-
+        // Events are filled in by the background loader
         // Start month at January 2025
         calendarCurrentMonth = YearMonth.of(2025, 1);
         updateCalendar(calendarGridPanel, calendarMonthLabel, events, calendarCurrentMonth);
@@ -1744,7 +2167,11 @@ public class Dashboard extends JFrame {
         return panel;
     }
 
-    private void updateCalendar(JPanel calendarGrid, JLabel monthLabel, Map<LocalDate, List<String[]>> events, YearMonth month) {
+    private void updateCalendar(JPanel calendarGrid, JLabel monthLabel, EventRepository events, YearMonth month) {
+        // The Calendar page may not be built yet; it renders from the current events when it is
+        if (calendarGrid == null) return;
+        FlightEvents.Render render = new FlightEvents.Render();
+        render.begin();
         calendarGrid.removeAll();
 
         monthLabel.setText(month.getMonth().name() + " " + month.getYear());
@@ -1784,12 +2211,11 @@ public class Dashboard extends JFrame {
             }
 
             // Highlight days with events
-            if (events.containsKey(date)) {
+            if (events.hasEvents(date)) {
                 dayBtn.setBackground(new Color(135, 206, 235)); // light blue
-                List<String[]> evts = events.get(date);
                 String tooltip = "";
-                for (String[] ev : evts) {
-                    tooltip += ev[0] + " (" + ev[1] + ")\n";
+                for (CalendarEvent ev : events.on(date)) {
+                    tooltip += ev.title + " (" + ev.type + ")\n";
                 }
                 dayBtn.setToolTipText("<html>" + tooltip.replace("\n", "<br>") + "</html>");
             } else {
@@ -1798,13 +2224,13 @@ public class Dashboard extends JFrame {
 
             // On click, show events for day
             dayBtn.addActionListener(e -> {
-                List<String[]> evts = events.get(date);
-                if (evts == null || evts.isEmpty()) {
+                List<CalendarEvent> evts = events.on(date);
+                if (evts.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "No events on " + date.toString());
                 } else {
                     String msg = "";
-                    for (String[] ev : evts) {
-                        msg += ev[1] + ": " + ev[0] + "\n";
+                    for (CalendarEvent ev : evts) {
+                        msg += ev.type + ": " + ev.title + "\n";
                     }
                     JOptionPane.showMessageDialog(this, msg, "Events on " + date.toString(), JOptionPane.INFORMATION_MESSAGE);
                 }
@@ -1815,49 +2241,12 @@ public class Dashboard extends JFrame {
 
         calendarGrid.revalidate();
         calendarGrid.repaint();
+        commitRender(render, "calendar", events.dayCount());
     }
 
-    private Map<LocalDate, List<String[]>> loadEvents() {
-        Map<LocalDate, List<String[]>> map = new HashMap<>();
-        File file = new File("data/events.txt");
-        if (!file.exists()) return map;
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] parts = line.split("\\|");
-                if (parts.length == 3) {
-                    LocalDate date = LocalDate.parse(parts[0], formatter);
-                    String title = parts[1];
-                    String type = parts[2];
-                    map.computeIfAbsent(date, k -> new ArrayList<>()).add(new String[]{title, type});
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return map;
-    }
-
-    private void saveEvents(Map<LocalDate, List<String[]>> events) {
-        try {
-            File dataDir = new File("data");
-            if (!dataDir.exists()) dataDir.mkdirs();
-
-            try (PrintWriter writer = new PrintWriter(new FileWriter("data/events.txt"))) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                for (Map.Entry<LocalDate, List<String[]>> entry : events.entrySet()) {
-                    String dateStr = formatter.format(entry.getKey());
-                    for (String[] ev : entry.getValue()) {
-                        writer.println(dateStr + "|" + ev[0] + "|" + ev[1]);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private void saveEvents() {
+        if (!eventsLoaded) return;
+        checkpoints.markDirty(eventsFile, "events", events::lines, checkpoint("events"));
     }
 
 
@@ -1871,30 +2260,45 @@ public class Dashboard extends JFrame {
     }
 
     private void showPage(String name) {
-        mainContentPanel.removeAll();
-        mainContentPanel.add(pages.get(name), BorderLayout.CENTER);
-        mainContentPanel.revalidate();
-        mainContentPanel.repaint();
+        EdtMonitor.tag("showPage: ", name);
+        Metrics.Timer timer = pageTimers.get(name);
+        long t = timer.start();
+        try {
+            mainContentPanel.removeAll();
+            mainContentPanel.add(getPage(name), BorderLayout.CENTER);
+            mainContentPanel.revalidate();
+            mainContentPanel.repaint();
 
-        if (name.equals("Dashboard")) {
-            updateDashboardData();
-            updateDashboardCompletionRate();
-        } else if (name.equals("Assessments")) {
-            refreshAssessmentStatuses();
-            updateDashboardCompletionRate();
+            if (name.equals("Dashboard")) {
+                updateDashboardData();
+                updateDashboardCompletionRate();
+            } else if (name.equals("Assessments")) {
+                refreshAssessmentStatuses();
+                updateDashboardCompletionRate();
+            }
+        } finally {
+            timer.stop(t);
         }
     }
 
 
     private void updateDashboardCompletionRate() {
-        if (assessmentDataList == null || assessmentDataList.isEmpty()) {
+        if (!assessmentsLoaded) return;
+        completedAsOf = LocalDate.now();
+        if (assessments.isEmpty()) {
+            completedAssessments = 0;
             if (progressCardValueLabel != null) progressCardValueLabel.setText("0%");
             if (progressCardProgressBar != null) progressCardProgressBar.setValue(0);
             return;
         }
 
-        long completedCount = assessmentDataList.stream().filter(a -> "Completed".equalsIgnoreCase(a[3])).count();
-        int percent = (int) ((completedCount * 100) / assessmentDataList.size());
+        completedAssessments = assessments.countWithStatus(Assessment.Status.COMPLETED, completedAsOf);
+        showCompletionRate();
+    }
+
+    private void showCompletionRate() {
+        if (assessments.isEmpty()) return;
+        int percent = (int) ((completedAssessments * 100L) / assessments.size());
 
         if (progressCardValueLabel != null)
             progressCardValueLabel.setText(percent + "%");
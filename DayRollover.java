@@ -0,0 +1,59 @@
+package dashboard;
+
+import javax.swing.Timer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+// Tells the dashboard when the local date changes, on the EDT.
+//
+// A single-shot Swing timer is armed for the next local midnight. When it fires the date is
+// read again, so a timer held up by sleep or moved by a clock or time zone change reports the
+// whole step from the last day it saw to the current one. The delay is capped so the date is
+// re-read at least hourly even if the wall clock jumps without the timer noticing.
+class DayRollover {
+    private static final long MAX_DELAY_MS = 60 * 60 * 1000;
+
+    interface Listener {
+        // today may be before previous if the clock was set back
+        void dayChanged(LocalDate previous, LocalDate today);
+    }
+
+    private final Listener listener;
+    private final Timer timer;
+    private LocalDate today;
+
+    DayRollover(Listener listener) {
+        this.listener = listener;
+        this.timer = new Timer(0, e -> check());
+        timer.setRepeats(false);
+    }
+
+    void start() {
+        today = LocalDate.now();
+        arm();
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void arm() {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        // A little past the boundary, so an early tick does not land on the old day
+        long delay = Math.min(Duration.between(now, midnight).toMillis() + 50, MAX_DELAY_MS);
+        timer.setInitialDelay((int) delay);
+        timer.restart();
+    }
+
+    private void check() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            LocalDate previous = today;
+            today = now;
+            listener.dayChanged(previous, now);
+        }
+        arm();
+    }
+}
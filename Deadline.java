@@ -0,0 +1,45 @@
+package core;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+public class Deadline {
+    // epochDay of a deadline whose dueDate is not a yyyy-MM-dd date
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    public final String title;
+    public final String dueDate;
+    public final String type;
+    public final boolean urgent;
+    // dueDate parsed once, as LocalDate.toEpochDay()
+    public final long epochDay;
+
+    public Deadline(String title, String dueDate, String type, boolean urgent) {
+        this.title = title;
+        this.dueDate = dueDate;
+        this.type = type;
+        this.urgent = urgent;
+        this.epochDay = parseEpochDay(dueDate);
+    }
+
+    private static long parseEpochDay(String date) {
+        try {
+            return LocalDate.parse(date).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return title + "|" + dueDate + "|" + type + "|" + urgent;
+    }
+
+    public static Deadline fromString(String str) {
+        String[] parts = str.split("\\|");
+        if (parts.length == 4) {
+            return new Deadline(parts[0], parts[1], parts[2], Boolean.parseBoolean(parts[3]));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+// Deadlines of one user, stored one per line in deadlines_<user>.txt.
+// Like the other repositories it is not thread-safe: the owner (the EDT in the dashboard)
+// does all edits, and read() is the only method meant to run elsewhere.
+//
+// Besides the list in file order (which indexes and change-log records refer to), deadlines
+// with a valid date are kept in a map ordered by due day. Date-range counts and "soonest"
+// queries walk only the days they return, never the whole list, and anything due before the
+// day asked about is simply outside the range.
+public class DeadlineRepository implements Iterable<Deadline> {
+    private final File file;
+    private final List<Deadline> deadlines = new ArrayList<>();
+    private final NavigableMap<Long, List<Deadline>> byDay = new TreeMap<>();
+
+    public DeadlineRepository(File file) {
+        this.file = file;
+    }
+
+    public File file() {
+        return file;
+    }
+
+    // Parses the file into new objects without touching the repository
+    public List<Deadline> read() {
+        List<Deadline> list = new ArrayList<>();
+        TextFiles.readLines(file, line -> {
+            Deadline deadline = Deadline.fromString(line);
+            if (deadline != null) list.add(deadline);
+        });
+        return list;
+    }
+
+    // Puts loaded rows ahead of any added before the load finished
+    public void merge(List<Deadline> loaded) {
+        deadlines.addAll(0, loaded);
+        for (Deadline deadline : loaded) index(deadline);
+    }
+
+    public void load() {
+        merge(read());
+    }
+
+    public void add(Deadline deadline) {
+        deadlines.add(deadline);
+        index(deadline);
+    }
+
+    public Deadline remove(int index) {
+        Deadline removed = deadlines.remove(index);
+        List<Deadline> day = byDay.get(removed.epochDay);
+        if (day != null) {
+            day.remove(removed);
+            if (day.isEmpty()) byDay.remove(removed.epochDay);
+        }
+        return removed;
+    }
+
+    private void index(Deadline deadline) {
+        if (deadline.epochDay != Deadline.NO_DATE) {
+            byDay.computeIfAbsent(deadline.epochDay, k -> new ArrayList<>(1)).add(deadline);
+        }
+    }
+
+    public Deadline get(int index) {
+        return deadlines.get(index);
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    public boolean isEmpty() {
+        return deadlines.isEmpty();
+    }
+
+    @Override
+    public Iterator<Deadline> iterator() {
+        return Collections.unmodifiableList(deadlines).iterator();
+    }
+
+    public List<String> lines() {
+        List<String> lines = new ArrayList<>(deadlines.size());
+        for (Deadline deadline : deadlines) {
+            lines.add(deadline.toString());
+        }
+        return lines;
+    }
+
+    public long save() throws IOException {
+        return TextFiles.writeAtomically(file, lines());
+    }
+
+    // Counts deadlines due between today and today + days, inclusive
+    public int countDueWithin(LocalDate today, int days) {
+        long first = today.toEpochDay();
+        int count = 0;
+        for (List<Deadline> day : byDay.subMap(first, true, first + days, true).values()) {
+            count += day.size();
+        }
+        return count;
+    }
+
+    // The k deadlines due soonest from today on, earliest first; same-day ones in file order
+    public List<Deadline> soonest(LocalDate today, int k) {
+        List<Deadline> result = new ArrayList<>(k);
+        for (List<Deadline> day : byDay.tailMap(today.toEpochDay(), true).values()) {
+            for (Deadline deadline : day) {
+                if (result.size() == k) return result;
+                result.add(deadline);
+            }
+        }
+        return result;
+    }
+
+    // Same count by scanning a plain list, for callers without a repository
+    public static int countDueWithin(List<Deadline> deadlines, LocalDate today, int days) {
+        long first = today.toEpochDay();
+        long last = first + days;
+        int count = 0;
+        for (Deadline deadline : deadlines) {
+            if (deadline.epochDay >= first && deadline.epochDay <= last) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,82 @@
+package dashboard;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+// Hidden EDT latency view, opened with Ctrl+Shift+D from the dashboard
+class DiagnosticsDialog extends JDialog {
+    private static final long serialVersionUID = 1L;
+
+    private final DefaultTableModel tableModel = new DefaultTableModel(
+            new String[]{"Source", "Count", "p50 (ms)", "p99 (ms)", "Max (ms)"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 0 ? String.class : column == 1 ? Long.class : Double.class;
+        }
+    };
+    private final JTextArea stallArea = new JTextArea();
+
+    DiagnosticsDialog(Frame owner) {
+        super(owner, "EDT Diagnostics", false);
+        setLayout(new BorderLayout());
+
+        JTable table = new JTable(tableModel);
+        table.setAutoCreateRowSorter(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(360);
+
+        stallArea.setEditable(false);
+        stallArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("Latency by source", new JScrollPane(table));
+        tabs.addTab("Recent stalls", new JScrollPane(stallArea));
+        add(tabs, BorderLayout.CENTER);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout());
+        JButton refreshBtn = new JButton("Refresh");
+        refreshBtn.addActionListener(e -> refresh());
+        JButton resetBtn = new JButton("Reset");
+        resetBtn.addActionListener(e -> {
+            EdtMonitor.get().reset();
+            refresh();
+        });
+        buttonPanel.add(refreshBtn);
+        buttonPanel.add(resetBtn);
+        add(buttonPanel, BorderLayout.SOUTH);
+
+        refresh();
+        setSize(800, 500);
+        setLocationRelativeTo(owner);
+    }
+
+    static void open(Frame owner) {
+        if (!EdtMonitor.isInstalled()) {
+            JOptionPane.showMessageDialog(owner, "EDT monitoring is off. Start the app with -Dedt.monitor=true to enable it.");
+            return;
+        }
+        new DiagnosticsDialog(owner).setVisible(true);
+    }
+
+    private void refresh() {
+        EdtMonitor monitor = EdtMonitor.get();
+        tableModel.setRowCount(0);
+        for (Object[] row : monitor.snapshot()) {
+            tableModel.addRow(new Object[]{row[0], row[1], millis((Long) row[2]), millis((Long) row[3]), millis((Long) row[4])});
+        }
+
+        List<String> stalls = monitor.recentStalls();
+        stallArea.setText(stalls.isEmpty() ? "No stalls recorded." : String.join("\n", stalls));
+        stallArea.setCaretPosition(0);
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+}
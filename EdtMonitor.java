@@ -0,0 +1,243 @@
+package dashboard;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.util.*;
+import java.util.List;
+
+// Opt-in EDT instrumentation, enabled with -Dedt.monitor=true.
+//
+// Replaces the system EventQueue with one that times every dispatch and records it in a
+// latency histogram per source (event type plus component, or an explicit tag such as a
+// showPage target). A watchdog thread samples the EDT's stack while a dispatch runs past
+// -Dedt.monitor.thresholdMs (default 100), and each stall is logged with the stacks it caught.
+public class EdtMonitor extends EventQueue {
+    private static final int MAX_SOURCES = 500;
+    private static final int MAX_SAMPLES_PER_STALL = 20;
+    private static final int MAX_STALL_REPORTS = 20;
+
+    private static volatile EdtMonitor instance;
+
+    // One entry per dispatch in progress; nested entries come from modal dialogs pumping events.
+    // A handler that opens a dialog is charged only for its own work, before and after: time in
+    // nested dispatches and in the modal loop waiting for the next event is left out.
+    private static class Dispatch {
+        final long start;
+        final String source;
+        String tag;
+        long excludedNanos;
+        // When the handler's own work (re)started, for the watchdog; 0 while it is not running.
+        // ranNanos is its own time before that, so work after a dialog counts towards a stall too.
+        volatile long since;
+        volatile long ranNanos;
+        final List<StackTraceElement[]> samples = new ArrayList<>();
+
+        Dispatch(long start, String source) {
+            this.start = start;
+            this.source = source;
+            this.since = start;
+        }
+
+        void pause(long now) {
+            if (since == 0) return;
+            ranNanos += now - since;
+            since = 0;
+        }
+    }
+
+    private final long thresholdNanos;
+    private final Deque<Dispatch> dispatches = new ArrayDeque<>();
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<>();
+    private final Deque<String> stallReports = new ArrayDeque<>();
+    private volatile Thread edt;
+    // The innermost dispatch in progress, which the watchdog samples
+    private volatile Dispatch current;
+
+    private EdtMonitor(long thresholdMs) {
+        this.thresholdNanos = thresholdMs * 1_000_000;
+    }
+
+    public static void installIfEnabled() {
+        if (!Boolean.getBoolean("edt.monitor")) return;
+        EdtMonitor monitor = new EdtMonitor(Long.getLong("edt.monitor.thresholdMs", 100));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(monitor);
+        instance = monitor;
+        monitor.startWatchdog();
+    }
+
+    static boolean isInstalled() {
+        return instance != null;
+    }
+
+    // Also files the current dispatch under kind + name, e.g. "showPage: Calendar".
+    // Takes the parts separately so nothing is concatenated when monitoring is off.
+    static void tag(String kind, String name) {
+        EdtMonitor monitor = instance;
+        if (monitor != null && SwingUtilities.isEventDispatchThread() && !monitor.dispatches.isEmpty()) {
+            monitor.dispatches.peek().tag = kind + name;
+        }
+    }
+
+    static EdtMonitor get() {
+        return instance;
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        edt = Thread.currentThread();
+        Dispatch outer = dispatches.peek();
+        Dispatch dispatch = new Dispatch(System.nanoTime(), describe(event));
+        if (outer != null) outer.pause(dispatch.start);
+        dispatches.push(dispatch);
+        current = dispatch;
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            long end = System.nanoTime();
+            dispatches.pop();
+            current = outer;
+            if (outer != null) {
+                // The outer handler may go on working after its dialog closes, e.g. saving
+                outer.excludedNanos += end - dispatch.start;
+                outer.since = end;
+            }
+            record(dispatch, end - dispatch.start - dispatch.excludedNanos);
+        }
+    }
+
+    // Called by the EDT for each event it pumps, including from a modal loop inside a dispatch;
+    // the handler that opened the dialog is idle while this waits, so it is neither timed nor sampled
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        Dispatch outer = Thread.currentThread() == edt ? dispatches.peek() : null;
+        if (outer == null) return super.getNextEvent();
+        long start = System.nanoTime();
+        outer.pause(start);
+        try {
+            return super.getNextEvent();
+        } finally {
+            long end = System.nanoTime();
+            outer.excludedNanos += end - start;
+            outer.since = end;
+        }
+    }
+
+    // Snapshot for the diagnostics dialog: source, count, p50, p99 and max in microseconds
+    synchronized List<Object[]> snapshot() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            LatencyHistogram h = entry.getValue();
+            rows.add(new Object[]{entry.getKey(), h.count(), h.percentile(50), h.percentile(99), h.max()});
+        }
+        return rows;
+    }
+
+    synchronized List<String> recentStalls() {
+        return new ArrayList<>(stallReports);
+    }
+
+    synchronized void reset() {
+        histograms.clear();
+        stallReports.clear();
+    }
+
+    private synchronized void record(Dispatch dispatch, long elapsedNanos) {
+        long micros = elapsedNanos / 1000;
+        histogram(dispatch.source).record(micros);
+        if (dispatch.tag != null) {
+            histogram(dispatch.tag).record(micros);
+        }
+        if (elapsedNanos >= thresholdNanos) {
+            reportStall(dispatch, elapsedNanos);
+        }
+    }
+
+    private LatencyHistogram histogram(String source) {
+        LatencyHistogram h = histograms.get(source);
+        if (h == null) {
+            if (histograms.size() >= MAX_SOURCES) source = "(other)";
+            h = histograms.computeIfAbsent(source, k -> new LatencyHistogram());
+        }
+        return h;
+    }
+
+    // Groups the watchdog's samples by stack so the hot path shows up with the highest count
+    private void reportStall(Dispatch dispatch, long elapsedNanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("EDT stall: ").append(elapsedNanos / 1_000_000).append(" ms in ")
+                .append(dispatch.tag != null ? dispatch.tag + " (" + dispatch.source + ")" : dispatch.source).append('\n');
+        Map<String, Integer> stacks = new LinkedHashMap<>();
+        for (StackTraceElement[] sample : dispatch.samples) {
+            StringBuilder stack = new StringBuilder();
+            for (StackTraceElement frame : sample) {
+                // Frames below the dispatch are the same for every event
+                if (frame.getClassName().equals(EdtMonitor.class.getName())) break;
+                stack.append("    at ").append(frame).append('\n');
+            }
+            stacks.merge(stack.toString(), 1, Integer::sum);
+        }
+        if (stacks.isEmpty()) {
+            sb.append("  (finished before the watchdog could sample it)\n");
+        }
+        for (Map.Entry<String, Integer> entry : stacks.entrySet()) {
+            sb.append("  ").append(entry.getValue()).append(" sample(s):\n").append(entry.getKey());
+        }
+        String report = sb.toString();
+        System.err.print(report);
+        stallReports.addFirst(report);
+        if (stallReports.size() > MAX_STALL_REPORTS) stallReports.removeLast();
+    }
+
+    private void startWatchdog() {
+        long intervalMs = Math.max(5, thresholdNanos / 4_000_000);
+        Thread watchdog = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Dispatch dispatch = current;
+                Thread thread = edt;
+                long since = dispatch != null ? dispatch.since : 0;
+                if (since != 0 && thread != null && dispatch.ranNanos + System.nanoTime() - since >= thresholdNanos) {
+                    StackTraceElement[] stack = thread.getStackTrace();
+                    synchronized (this) {
+                        // The dispatch may have ended or nested while the stack was taken; then the sample is stale
+                        if (current == dispatch && dispatch.since == since && dispatch.samples.size() < MAX_SAMPLES_PER_STALL) {
+                            dispatch.samples.add(stack);
+                        }
+                    }
+                }
+            }
+        }, "edt-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+    }
+
+    private static String describe(AWTEvent event) {
+        Object source = event.getSource();
+        if (event instanceof InvocationEvent) {
+            // invokeLater and Swing timers; the runnable's class says who posted it
+            String params = event.paramString();
+            int at = params.indexOf("runnable=");
+            if (at >= 0) {
+                String runnable = params.substring(at + 9);
+                int end = runnable.indexOf('@');
+                if (end < 0) end = runnable.indexOf(',');
+                if (end >= 0) runnable = runnable.substring(0, end);
+                // Lambda class names carry a per-run suffix; keep the declaring class
+                int lambda = runnable.indexOf("$$Lambda");
+                if (lambda >= 0) runnable = runnable.substring(0, lambda) + " (lambda)";
+                return "invokeLater " + runnable;
+            }
+            return "invokeLater";
+        }
+        String type = event.getClass().getSimpleName();
+        if (source instanceof AbstractButton && ((AbstractButton) source).getText() != null) {
+            return type + " " + source.getClass().getSimpleName() + "[" + ((AbstractButton) source).getText() + "]";
+        }
+        return type + " " + (source != null ? source.getClass().getSimpleName() : "-");
+    }
+}
@@ -0,0 +1,94 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+// A user's calendar events (data/events_<user>.txt), grouped by day
+public class EventRepository {
+    private final File file;
+    private final Map<LocalDate, List<CalendarEvent>> byDate = new HashMap<>();
+
+    public EventRepository(File file) {
+        this.file = file;
+    }
+
+    public File file() {
+        return file;
+    }
+
+    public Map<LocalDate, List<CalendarEvent>> read() {
+        Map<LocalDate, List<CalendarEvent>> map = new HashMap<>();
+        TextFiles.readLines(file, line -> {
+            CalendarEvent event = CalendarEvent.fromString(line);
+            if (event != null) map.computeIfAbsent(event.date, k -> new ArrayList<>()).add(event);
+        });
+        return map;
+    }
+
+    public void merge(Map<LocalDate, List<CalendarEvent>> loaded) {
+        for (Map.Entry<LocalDate, List<CalendarEvent>> entry : loaded.entrySet()) {
+            byDate.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).addAll(0, entry.getValue());
+        }
+    }
+
+    public void load() {
+        merge(read());
+    }
+
+    public void add(CalendarEvent event) {
+        byDate.computeIfAbsent(event.date, k -> new ArrayList<>()).add(event);
+    }
+
+    // Removes the day's events that match; returns true if any were removed
+    public boolean removeIf(LocalDate date, Predicate<CalendarEvent> filter) {
+        List<CalendarEvent> dayEvents = byDate.get(date);
+        if (dayEvents == null || !dayEvents.removeIf(filter)) return false;
+        if (dayEvents.isEmpty()) byDate.remove(date);
+        return true;
+    }
+
+    public List<CalendarEvent> on(LocalDate date) {
+        List<CalendarEvent> dayEvents = byDate.get(date);
+        return dayEvents == null ? Collections.emptyList() : Collections.unmodifiableList(dayEvents);
+    }
+
+    public boolean hasEvents(LocalDate date) {
+        return byDate.containsKey(date);
+    }
+
+    // Number of days with at least one event
+    public int dayCount() {
+        return byDate.size();
+    }
+
+    public int size() {
+        int count = 0;
+        for (List<CalendarEvent> dayEvents : byDate.values()) count += dayEvents.size();
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return byDate.isEmpty();
+    }
+
+    public List<String> lines() {
+        return lines(byDate);
+    }
+
+    public static List<String> lines(Map<LocalDate, List<CalendarEvent>> events) {
+        List<String> lines = new ArrayList<>();
+        for (List<CalendarEvent> dayEvents : events.values()) {
+            for (CalendarEvent event : dayEvents) {
+                lines.add(event.toString());
+            }
+        }
+        return lines;
+    }
+
+    public long save() throws IOException {
+        return TextFiles.writeAtomically(file, lines());
+    }
+}
@@ -0,0 +1,112 @@
+package metrics;
+
+import jdk.jfr.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// JDK Flight Recorder events for the app's own phases, so they line up with GC and thread data
+// in JDK Mission Control. Recording with -Dstudyapp.jfr=true keeps a rolling recording that is
+// dumped to studyapp-<timestamp>.jfr (or -Dstudyapp.jfr.file) when the JVM exits.
+public final class FlightEvents {
+    private FlightEvents() {
+    }
+
+    @Name("studyapp.StartupPhase")
+    @Label("Dashboard Startup Phase")
+    @Category({"Study App", "Startup"})
+    public static class StartupPhase extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Phase")
+        public String phase;
+    }
+
+    @Name("studyapp.Load")
+    @Label("Load")
+    @Category({"Study App", "Persistence"})
+    public static class Load extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Entity")
+        public String entity;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("studyapp.Save")
+    @Label("Save")
+    @Category({"Study App", "Persistence"})
+    public static class Save extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Entity")
+        public String entity;
+
+        @Label("Records")
+        public int records;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("studyapp.Render")
+    @Label("Render")
+    @Category({"Study App", "UI"})
+    public static class Render extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Component")
+        public String component;
+
+        @Label("Items")
+        public int items;
+    }
+
+    @Name("studyapp.LoginAttempt")
+    @Label("Login Attempt")
+    @Category({"Study App", "Auth"})
+    public static class LoginAttempt extends Event {
+        @Label("User")
+        public String user;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    public static void startRecordingIfEnabled() {
+        if (!Boolean.getBoolean("studyapp.jfr")) return;
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("studyapp");
+            recording.enable(StartupPhase.class);
+            recording.enable(Load.class);
+            recording.enable(Save.class);
+            recording.enable(Render.class);
+            recording.enable(LoginAttempt.class);
+            recording.setToDisk(true);
+            recording.setMaxAge(Duration.ofMinutes(Long.getLong("studyapp.jfr.maxAgeMinutes", 30)));
+            String file = System.getProperty("studyapp.jfr.file",
+                    "studyapp-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".jfr");
+            recording.setDestination(Path.of(file));
+            recording.setDumpOnExit(true);
+            recording.start();
+        } catch (IOException | ParseException e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+}
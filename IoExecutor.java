@@ -0,0 +1,138 @@
+package dashboard;
+
+import javax.swing.*;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// Owns the dashboard's file access and other blocking calls.
+//
+// Tasks run on a small pool of background threads. Tasks submitted with the same key (the
+// file they touch) run one after another in submission order, so a save can never overtake
+// an earlier save or load of that file. Results and errors are handed back on the EDT.
+class IoExecutor {
+    interface IoTask<T> {
+        T call() throws Exception;
+    }
+
+    private static final CompletableFuture<Object> DONE = CompletableFuture.completedFuture(null);
+
+    private final ExecutorService pool;
+    private final Map<String, CompletableFuture<?>> tails = new HashMap<>();
+    private final Set<CompletableFuture<?>> running = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Consumer<String> errorHandler;
+    private Consumer<Boolean> busyListener = busy -> { };
+
+    IoExecutor(int threads, Consumer<String> errorHandler) {
+        this.errorHandler = errorHandler;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "dashboard-io-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Told on the EDT whenever the executor goes from idle to busy or back
+    void setBusyListener(Consumer<Boolean> busyListener) {
+        this.busyListener = busyListener;
+    }
+
+    // key is the file the task touches, or null if it shares no file with other tasks
+    <T> CompletableFuture<T> submit(String key, IoTask<T> task) {
+        if (pool.isShutdown()) {
+            // A late save from a window that is already closing
+            return CompletableFuture.failedFuture(new IllegalStateException("The dashboard has been closed"));
+        }
+        started();
+        CompletableFuture<T> result;
+        if (key == null) {
+            result = CompletableFuture.supplyAsync(() -> call(task), pool);
+        } else {
+            synchronized (tails) {
+                CompletableFuture<?> previous = tails.getOrDefault(key, DONE);
+                // A failed task must not stop later ones for the same file
+                result = previous.handle((r, e) -> null).thenApplyAsync(ignored -> call(task), pool);
+                tails.put(key, result);
+            }
+        }
+        CompletableFuture<T> submitted = result;
+        running.add(submitted);
+        submitted.whenComplete((r, e) -> {
+            if (key != null) {
+                synchronized (tails) {
+                    tails.remove(key, submitted);
+                }
+            }
+            running.remove(submitted);
+            finished();
+        });
+        return submitted;
+    }
+
+    // Runs the task in the background and passes its result to onSuccess on the EDT.
+    // A failure is reported to the error handler as "Error <what>: <message>" instead.
+    <T> void submit(String key, String what, IoTask<T> task, Consumer<T> onSuccess) {
+        submit(key, task).whenCompleteAsync((result, error) -> {
+            if (error != null) {
+                errorHandler.accept("Error " + what + ": " + rootMessage(error));
+                return;
+            }
+            onSuccess.accept(result);
+        }, SwingUtilities::invokeLater);
+    }
+
+    // Stops the background threads once queued tasks have run; drain() first to wait for them.
+    // Later submissions fail instead of running.
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    // Completes once every task submitted so far has finished, successfully or not.
+    // Does not depend on the EDT, so it is safe to join from there.
+    CompletableFuture<Void> drain() {
+        return CompletableFuture.allOf(running.stream()
+                .map(f -> f.handle((r, e) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && (cause instanceof CompletionException || cause instanceof UncheckedIOException
+                || cause.getMessage() == null)) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    private static <T> T call(IoTask<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private void started() {
+        if (inFlight.incrementAndGet() == 1) {
+            SwingUtilities.invokeLater(() -> busyListener.accept(inFlight.get() > 0));
+        }
+    }
+
+    private void finished() {
+        if (inFlight.decrementAndGet() == 0) {
+            SwingUtilities.invokeLater(() -> busyListener.accept(inFlight.get() > 0));
+        }
+    }
+}
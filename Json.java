@@ -0,0 +1,112 @@
+package api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for the API: string quoting, and parsing of flat request bodies such as
+// {"name": "Notes", "urgent": true}. Values come back as strings.
+final class Json {
+    private Json() {
+    }
+
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    static Map<String, String> parseObject(String text) {
+        Parser p = new Parser(text);
+        Map<String, String> fields = new LinkedHashMap<>();
+        p.expect('{');
+        if (!p.consume('}')) {
+            do {
+                String key = p.string();
+                p.expect(':');
+                fields.put(key, p.value());
+            } while (p.consume(','));
+            p.expect('}');
+        }
+        p.skipSpace();
+        if (p.pos != text.length()) throw new IllegalArgumentException("Unexpected content after the object");
+        return fields;
+    }
+
+    private static final class Parser {
+        final String text;
+        int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        void skipSpace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        boolean consume(char c) {
+            skipSpace();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char c) {
+            if (!consume(c)) throw new IllegalArgumentException("Expected '" + c + "' at " + pos);
+        }
+
+        // A string, number, true, false or null (as Java null)
+        String value() {
+            skipSpace();
+            if (pos < text.length() && text.charAt(pos) == '"') return string();
+            int start = pos;
+            while (pos < text.length() && "+-.0123456789eEtruefalsn".indexOf(text.charAt(pos)) >= 0) pos++;
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) throw new IllegalArgumentException("Expected a value at " + start);
+            return literal.equals("null") ? null : literal;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) break;
+                char e = text.charAt(pos++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > text.length()) throw new IllegalArgumentException("Bad \\u escape");
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string");
+        }
+    }
+}
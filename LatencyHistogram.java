@@ -0,0 +1,62 @@
+package dashboard;
+
+// Log-linear latency histogram in the style of HdrHistogram: values (microseconds) are counted in
+// buckets that double in width every 32 steps, so precision stays around 3% from microseconds up to
+// an hour while the whole thing is one fixed long[]. Recording never allocates.
+class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF = SUB_BUCKETS / 2;
+    private static final long MAX_VALUE = 3_600_000_000L; // one hour in microseconds
+
+    private final long[] counts = new long[index(MAX_VALUE) + 1];
+    private long total;
+    private long max;
+
+    void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts[index(value)]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100), capped at the exact max
+    long percentile(double percentile) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return Math.min(highestEquivalent(i), max);
+        }
+        return max;
+    }
+
+    void reset() {
+        java.util.Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        // Shift so the value lands in [HALF, SUB_BUCKETS); each shift level adds HALF buckets
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    private static long highestEquivalent(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = (index - SUB_BUCKETS) / HALF + 1;
+        long sub = (index - SUB_BUCKETS) % HALF + HALF;
+        return (sub << shift) + (1L << shift) - 1;
+    }
+}
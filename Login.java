@@ -1,6 +1,7 @@
 package auth;
 
 import dashboard.Dashboard;
+import metrics.FlightEvents;
 
 import javax.swing.*;
 import java.awt.*;
@@ -9,6 +10,7 @@ import java.awt.event.ActionEvent;
 public class Login extends JFrame {
     private JTextField usernameField;
     private JPasswordField passwordField;
+    private JButton loginBtn;
 
     public Login() {
         setTitle("Login");
@@ -72,7 +74,7 @@ public class Login extends JFrame {
         formPanel.add(passwordField, gbc);
 
         // Login Button
-        JButton loginBtn = new JButton("Login");
+        loginBtn = new JButton("Login");
         loginBtn.setFont(new Font("Segoe UI", Font.BOLD, 20));
         loginBtn.setBackground(new Color(70, 130, 180));
         loginBtn.setForeground(Color.WHITE);
@@ -117,11 +119,27 @@ public class Login extends JFrame {
             JOptionPane.showMessageDialog(this, "Please enter username and password.");
             return;
         }
-        if (UserManager.validateUser(username, password)) {
-            dispose();
-            new Dashboard(username);
-        } else {
-            JOptionPane.showMessageDialog(this, "Invalid credentials. Try again or register.");
-        }
+        // Password verification is deliberately slow, so it runs on the hasher pool and reports back on the EDT
+        loginBtn.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        // Spans the whole attempt, from the click until the result is back on the EDT
+        FlightEvents.LoginAttempt event = new FlightEvents.LoginAttempt();
+        event.begin();
+        UserManager.authenticateAsync(username, password).whenCompleteAsync((stored, error) -> {
+            event.user = username;
+            event.success = error == null && stored != null;
+            event.commit();
+            loginBtn.setEnabled(true);
+            setCursor(Cursor.getDefaultCursor());
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Login failed: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            } else if (stored != null) {
+                dispose();
+                // Files are named after the stored spelling, as the API does, whatever case was typed
+                new Dashboard(stored);
+            } else {
+                JOptionPane.showMessageDialog(this, "Invalid credentials. Try again or register.");
+            }
+        }, SwingUtilities::invokeLater);
     }
 }
@@ -1,9 +1,21 @@
 package auth;
 
+import api.ApiServer;
 import auth.Login;
+import cli.BatchCli;
+import dashboard.EdtMonitor;
+import metrics.FlightEvents;
 
 public class Main{
     public static void main(String[] args) {
+        FlightEvents.startRecordingIfEnabled();
+        if (args.length > 0) {
+            // Batch mode; nothing on this path loads AWT
+            System.setProperty("java.awt.headless", "true");
+            System.exit(BatchCli.run(args));
+        }
+        EdtMonitor.installIfEnabled();
+        ApiServer.startIfEnabled();
         new Login();
     }
 }
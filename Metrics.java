@@ -0,0 +1,186 @@
+package metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Small metrics registry published as MBeans under "studyapp:type=<kind>,name=<name>", so
+// jconsole on the same machine can read them. Enabled with -Dmetrics.enabled=true.
+//
+// Metrics are looked up once and kept in static fields by the code that records them. When
+// disabled every recording call is a branch on a constant and allocates nothing.
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("metrics.enabled");
+
+    private static final String DOMAIN = "studyapp";
+    private static final Map<String, Object> registry = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    public interface CounterMBean {
+        long getCount();
+    }
+
+    public interface TimerMBean {
+        long getCount();
+
+        double getTotalMillis();
+
+        double getMeanMillis();
+
+        double getMaxMillis();
+
+        double getLastMillis();
+
+        void reset();
+    }
+
+    public interface GaugeMBean {
+        long getValue();
+    }
+
+    public static final class Counter implements CounterMBean {
+        private final LongAdder count = new LongAdder();
+
+        public void add(long amount) {
+            if (ENABLED) count.add(amount);
+        }
+
+        public void increment() {
+            if (ENABLED) count.increment();
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    // Usage: long t = timer.start(); try { ... } finally { timer.stop(t); }
+    public static final class Timer implements TimerMBean {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private volatile long lastNanos;
+
+        public long start() {
+            return ENABLED ? System.nanoTime() : 0;
+        }
+
+        public void stop(long start) {
+            if (!ENABLED || start == 0) return;
+            long elapsed = System.nanoTime() - start;
+            count.increment();
+            totalNanos.add(elapsed);
+            lastNanos = elapsed;
+            long max;
+            while (elapsed > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, elapsed)) {
+                // retry
+            }
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getTotalMillis() {
+            return totalNanos.sum() / 1e6;
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / 1e6 / n;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return maxNanos.get() / 1e6;
+        }
+
+        @Override
+        public double getLastMillis() {
+            return lastNanos / 1e6;
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+            totalNanos.reset();
+            maxNanos.set(0);
+            lastNanos = 0;
+        }
+    }
+
+    public static final class Gauge implements GaugeMBean {
+        private volatile LongSupplier value;
+
+        private Gauge(LongSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+    }
+
+    public static Counter counter(String name) {
+        return (Counter) registry.computeIfAbsent("Counter:" + name, k -> register("Counter", name, new Counter(), CounterMBean.class));
+    }
+
+    public static Timer timer(String name) {
+        return (Timer) registry.computeIfAbsent("Timer:" + name, k -> register("Timer", name, new Timer(), TimerMBean.class));
+    }
+
+    // Re-registering a gauge rebinds it, e.g. to the dashboard of the user who logged in last
+    public static void gauge(String name, LongSupplier value) {
+        if (!ENABLED) return;
+        Gauge existing = (Gauge) registry.get("Gauge:" + name);
+        if (existing != null) {
+            existing.value = value;
+            return;
+        }
+        registry.computeIfAbsent("Gauge:" + name, k -> register("Gauge", name, new Gauge(value), GaugeMBean.class));
+    }
+
+    // Drops every gauge whose name starts with prefix, so the registry no longer holds on to
+    // whatever the suppliers captured
+    public static void removeGauges(String prefix) {
+        if (!ENABLED) return;
+        for (String key : registry.keySet()) {
+            String name = key.substring(key.indexOf(':') + 1);
+            if (!key.startsWith("Gauge:") || !name.startsWith(prefix) || registry.remove(key) == null) continue;
+            try {
+                ObjectName objectName = new ObjectName(DOMAIN + ":type=Gauge,name=" + ObjectName.quote(name));
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                if (server.isRegistered(objectName)) {
+                    server.unregisterMBean(objectName);
+                }
+            } catch (JMException e) {
+                System.err.println("Could not unregister metric " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private static <I, T extends I> T register(String type, String name, T metric, Class<I> mbeanInterface) {
+        if (!ENABLED) return metric;
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new StandardMBean(metric, mbeanInterface), objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register metric " + name + ": " + e.getMessage());
+        }
+        return metric;
+    }
+}
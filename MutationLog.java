@@ -0,0 +1,304 @@
+package dashboard;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Per-user write-ahead log for the dashboard's data files.
+//
+// Every edit appends one small record: lsn|entity|op|crc|payload. A single writer thread
+// drains whatever has queued up and commits the whole batch with one write and one fsync.
+// The snapshot files are rewritten only at checkpoints; after a crash the records newer
+// than each entity's checkpoint are replayed on top of its snapshot.
+class MutationLog implements Closeable {
+    static class Record {
+        final long lsn;
+        final String entity;
+        final String op;
+        final String payload;
+
+        Record(long lsn, String entity, String op, String payload) {
+            this.lsn = lsn;
+            this.entity = entity;
+            this.op = op;
+            this.payload = payload;
+        }
+
+        String encode() {
+            String body = lsn + "|" + entity + "|" + op + "|" + payload;
+            return lsn + "|" + entity + "|" + op + "|" + crc(body) + "|" + payload;
+        }
+
+        static Record decode(String line) {
+            String[] parts = line.split("\\|", 5);
+            if (parts.length != 5) return null;
+            try {
+                Record r = new Record(Long.parseLong(parts[0]), parts[1], parts[2], parts[4]);
+                String body = r.lsn + "|" + r.entity + "|" + r.op + "|" + r.payload;
+                return Long.parseLong(parts[3]) == crc(body) ? r : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static long crc(String body) {
+            CRC32 crc = new CRC32();
+            crc.update(body.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    // Control item queued behind records so checkpoints are applied in log order
+    private static class Checkpoint {
+        final String entity;
+        final long lsn;
+
+        Checkpoint(String entity, long lsn) {
+            this.entity = entity;
+            this.lsn = lsn;
+        }
+    }
+
+    private final File logFile;
+    private final File checkpointFile;
+    private final Consumer<String> errorHandler;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastLsn = new ConcurrentHashMap<>();
+    private final Thread writerThread;
+    private static final Object CLOSE = new Object();
+
+    // LSNs carry on from the highest one in the log or checkpoint file, so they keep increasing
+    // across sessions whatever the wall clock does. Both are only known once recover() has read
+    // the files, so LSNs are not handed out before then.
+    private long nextLsn;
+    private volatile long durableLsn;
+    private volatile boolean recovered;
+    private volatile boolean closed;
+
+    MutationLog(String logFile, String checkpointFile, Consumer<String> errorHandler) {
+        this.logFile = new File(logFile);
+        this.checkpointFile = new File(checkpointFile);
+        this.errorHandler = errorHandler;
+        this.writerThread = new Thread(this::runWriter, "mutation-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    // Returns the records written by earlier sessions that are not yet covered by a checkpoint,
+    // grouped by entity. Meant for a background thread: this one pass over the log also finds
+    // where this session's LSNs start. Truncation only happens once checkpoints cover every
+    // record, so between them the two files always hold the highest LSN handed out.
+    Map<String, List<Record>> recover() {
+        Map<String, List<Record>> byEntity = new HashMap<>();
+        long highest = 0;
+        try {
+            loadCheckpoints();
+            for (long lsn : checkpoints.values()) highest = Math.max(highest, lsn);
+            if (logFile.exists()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        Record r = Record.decode(line);
+                        // Torn or corrupt records come from a crashed batch; skip them
+                        if (r == null) continue;
+                        highest = Math.max(highest, r.lsn);
+                        lastLsn.merge(r.entity, r.lsn, Math::max);
+                        if (r.lsn > checkpoints.getOrDefault(r.entity, 0L)) {
+                            byEntity.computeIfAbsent(r.entity, k -> new ArrayList<>()).add(r);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            errorHandler.accept("Error reading change log: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                nextLsn = highest + 1;
+                durableLsn = highest;
+                recovered = true;
+                notifyAll();
+            }
+        }
+        return byEntity;
+    }
+
+    // Called on the EDT alongside the in-memory change it describes. Edits only start once the
+    // data has loaded, which is after recovery, so in practice this never waits.
+    synchronized long append(String entity, String op, String payload) {
+        awaitRecovery();
+        long lsn = nextLsn++;
+        queue.add(new Record(lsn, entity, op, payload));
+        return lsn;
+    }
+
+    synchronized long lastAssignedLsn() {
+        awaitRecovery();
+        return nextLsn - 1;
+    }
+
+    private void awaitRecovery() {
+        while (!recovered) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted waiting for change log recovery", e);
+            }
+        }
+    }
+
+    // Records that the snapshot for entity now contains every change up to lsn
+    void markCheckpointed(String entity, long lsn) {
+        queue.add(new Checkpoint(entity, lsn));
+    }
+
+    // Completes once every record appended so far has been fsynced
+    CompletableFuture<Void> sync() {
+        long target = lastAssignedLsn();
+        return CompletableFuture.runAsync(() -> {
+            synchronized (this) {
+                while (durableLsn < target && !closed) {
+                    try {
+                        wait(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    // Commits everything queued so far and stops the writer. Uses a sentinel rather than an
+    // interrupt, since interrupting a thread inside FileChannel I/O closes the channel.
+    @Override
+    public void close() {
+        closed = true;
+        queue.add(CLOSE);
+        try {
+            writerThread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        try (FileChannel channel = FileChannel.open(logFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // A crash can leave a torn last line; start a fresh line so it only spoils itself
+            if (channel.size() > 0 && !endsWithNewline()) {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+            List<Object> batch = new ArrayList<>();
+            while (true) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch);
+                boolean stop = batch.remove(CLOSE);
+                commit(channel, batch);
+                batch.clear();
+                if (stop) break;
+            }
+        } catch (IOException e) {
+            errorHandler.accept("Error writing change log: " + e.getMessage());
+        }
+    }
+
+    private boolean endsWithNewline() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(logFile, "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    // One write and one fsync for every record in the batch
+    private void commit(FileChannel channel, List<Object> batch) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        long highest = -1;
+        for (Object item : batch) {
+            if (item instanceof Record) {
+                Record r = (Record) item;
+                sb.append(r.encode()).append('\n');
+                lastLsn.merge(r.entity, r.lsn, Math::max);
+                highest = r.lsn;
+            }
+        }
+        if (sb.length() > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        if (highest >= 0) {
+            synchronized (this) {
+                durableLsn = highest;
+                notifyAll();
+            }
+        }
+
+        boolean checkpointed = false;
+        for (Object item : batch) {
+            if (item instanceof Checkpoint) {
+                Checkpoint c = (Checkpoint) item;
+                checkpoints.merge(c.entity, c.lsn, Math::max);
+                checkpointed = true;
+            }
+        }
+        if (checkpointed) {
+            saveCheckpoints();
+            truncateIfCovered(channel);
+        }
+    }
+
+    // Once every entity's snapshot covers its newest record the log holds nothing worth replaying
+    private void truncateIfCovered(FileChannel channel) throws IOException {
+        if (!recovered) return;
+        for (Map.Entry<String, Long> entry : lastLsn.entrySet()) {
+            if (checkpoints.getOrDefault(entry.getKey(), 0L) < entry.getValue()) return;
+        }
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    private void loadCheckpoints() throws IOException {
+        if (!checkpointFile.exists()) return;
+        Properties props = new Properties();
+        try (InputStream in = new FileInputStream(checkpointFile)) {
+            props.load(in);
+        }
+        for (String entity : props.stringPropertyNames()) {
+            try {
+                checkpoints.merge(entity, Long.parseLong(props.getProperty(entity)), Math::max);
+            } catch (NumberFormatException ignored) { }
+        }
+    }
+
+    private void saveCheckpoints() throws IOException {
+        Properties props = new Properties();
+        for (Map.Entry<String, Long> entry : checkpoints.entrySet()) {
+            props.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        File tmp = new File(checkpointFile.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp)) {
+            props.store(out, null);
+            out.getFD().sync();
+        }
+        Files.move(tmp.toPath(), checkpointFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,120 @@
+package auth;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Salted PBKDF2 password hashing, stored as pbkdf2$<iterations>$<salt>$<hash>.
+// Rows without the prefix are legacy plaintext and are upgraded on the next successful login.
+class PasswordHasher {
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final int MIN_ITERATIONS = 10_000;
+    private static final int CALIBRATION_ITERATIONS = 20_000;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Work factor: -Dauth.hash.iterations pins it, otherwise it is calibrated so one
+    // hash takes about -Dauth.hash.targetMs (default 250) on this machine.
+    private static volatile int iterations = Integer.getInteger("auth.hash.iterations", 0);
+
+    // Hashing is CPU-bound, so a small bounded pool keeps it off the EDT without oversubscribing
+    private static final ExecutorService pool = Executors.newFixedThreadPool(
+            Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1)), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "password-hasher-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    static <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, pool);
+    }
+
+    static String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        int rounds = iterations();
+        byte[] derived = derive(password, salt, rounds);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + rounds + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(derived);
+    }
+
+    static boolean verify(String stored, String password) {
+        if (!isHashed(stored)) {
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) return false;
+        try {
+            int rounds = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, salt, rounds));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static boolean isHashed(String stored) {
+        return stored.startsWith(PREFIX);
+    }
+
+    // True for legacy plaintext and for hashes made with a much cheaper work factor than today's.
+    // The slack keeps calibration jitter between runs from rehashing on every login.
+    static boolean needsRehash(String stored) {
+        if (!isHashed(stored)) return true;
+        String[] parts = stored.split("\\$");
+        try {
+            return parts.length != 4 || Integer.parseInt(parts[1]) < iterations() / 2;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    static int iterations() {
+        int rounds = iterations;
+        if (rounds <= 0) {
+            rounds = calibrate(Integer.getInteger("auth.hash.targetMs", 250));
+            iterations = rounds;
+        }
+        return rounds;
+    }
+
+    private static int calibrate(int targetMs) {
+        byte[] salt = new byte[SALT_BYTES];
+        // First run warms up the JCE provider so it does not skew the measurement
+        derive("calibration", salt, MIN_ITERATIONS);
+        long start = System.nanoTime();
+        derive("calibration", salt, CALIBRATION_ITERATIONS);
+        double elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000.0);
+        long scaled = (long) (CALIBRATION_ITERATIONS * (targetMs / elapsedMs));
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, scaled));
+    }
+
+    private static byte[] derive(String password, byte[] salt, int rounds) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, rounds, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
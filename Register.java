@@ -3,10 +3,15 @@ package auth;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 public class Register extends JFrame {
     private JTextField usernameField;
     private JPasswordField passwordField;
+    private JLabel availabilityLabel;
+    private JButton registerBtn;
+    private Timer availabilityTimer;
 
     public Register() {
         setTitle("Register");
@@ -55,11 +60,19 @@ public class Register extends JFrame {
         gbc.gridx = 1;
         formPanel.add(usernameField, gbc);
 
+        // Live availability hint under the username field
+        availabilityLabel = new JLabel(" ");
+        availabilityLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        gbc.gridy = 2;
+        gbc.insets = new Insets(0, 15, 0, 15);
+        formPanel.add(availabilityLabel, gbc);
+        gbc.insets = new Insets(15, 15, 15, 15);
+
         // Password Label
         JLabel passLabel = new JLabel("New Password:");
         passLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
         gbc.gridx = 0;
-        gbc.gridy = 2;
+        gbc.gridy = 3;
         formPanel.add(passLabel, gbc);
 
         // Password Field
@@ -70,13 +83,13 @@ public class Register extends JFrame {
         formPanel.add(passwordField, gbc);
 
         // Register Button
-        JButton registerBtn = new JButton("Register");
+        registerBtn = new JButton("Register");
         registerBtn.setFont(new Font("Segoe UI", Font.BOLD, 20));
         registerBtn.setBackground(new Color(70, 130, 180));
         registerBtn.setForeground(Color.WHITE);
         registerBtn.setFocusPainted(false);
         gbc.gridx = 0;
-        gbc.gridy = 3;
+        gbc.gridy = 4;
         gbc.fill = GridBagConstraints.NONE;
         gbc.anchor = GridBagConstraints.CENTER;
         formPanel.add(registerBtn, gbc);
@@ -99,6 +112,15 @@ public class Register extends JFrame {
         add(splitPane);
 
         // -------- BUTTON ACTIONS --------
+        // Debounce keystrokes so the check runs once typing pauses
+        availabilityTimer = new Timer(150, e -> updateAvailability());
+        availabilityTimer.setRepeats(false);
+        usernameField.getDocument().addDocumentListener(new DocumentListener() {
+            public void insertUpdate(DocumentEvent e) { availabilityTimer.restart(); }
+            public void removeUpdate(DocumentEvent e) { availabilityTimer.restart(); }
+            public void changedUpdate(DocumentEvent e) { availabilityTimer.restart(); }
+        });
+
         registerBtn.addActionListener(this::handleRegister);
         backBtn.addActionListener(e -> {
             dispose();
@@ -108,6 +130,26 @@ public class Register extends JFrame {
         setVisible(true);
     }
 
+    private void updateAvailability() {
+        String username = usernameField.getText().trim();
+        if (username.isEmpty()) {
+            availabilityLabel.setText(" ");
+            return;
+        }
+        // The bloom filter answers most free names without touching the user store
+        UserManager.isTakenAsync(username).whenCompleteAsync((taken, error) -> {
+            // The name was edited again while this lookup ran; its own check will report
+            if (error != null || !username.equals(usernameField.getText().trim())) return;
+            if (taken) {
+                availabilityLabel.setText("Username already taken");
+                availabilityLabel.setForeground(new Color(220, 53, 69));
+            } else {
+                availabilityLabel.setText("Username available");
+                availabilityLabel.setForeground(new Color(40, 167, 69));
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
     private void handleRegister(ActionEvent e) {
         String username = usernameField.getText().trim();
         String password = new String(passwordField.getPassword());
@@ -115,12 +157,21 @@ public class Register extends JFrame {
             JOptionPane.showMessageDialog(this, "Please enter both username and password.");
             return;
         }
-        if (UserManager.registerUser(username, password)) {
-            JOptionPane.showMessageDialog(this, "Registration successful. You can now login.");
-            dispose();
-            new Login();
-        } else {
-            JOptionPane.showMessageDialog(this, "Username already exists. Try another.");
-        }
+        // Hashing the new password is slow on purpose, so keep it off the EDT
+        registerBtn.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        UserManager.registerUserAsync(username, password).whenCompleteAsync((registered, error) -> {
+            registerBtn.setEnabled(true);
+            setCursor(Cursor.getDefaultCursor());
+            if (error != null) {
+                JOptionPane.showMessageDialog(this, "Registration failed: " + error.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+            } else if (registered) {
+                JOptionPane.showMessageDialog(this, "Registration successful. You can now login.");
+                dispose();
+                new Login();
+            } else {
+                JOptionPane.showMessageDialog(this, "Username already exists. Try another.");
+            }
+        }, SwingUtilities::invokeLater);
     }
 }
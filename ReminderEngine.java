@@ -0,0 +1,162 @@
+package core;
+
+import java.time.*;
+import java.util.*;
+
+// Reminders at fixed offsets before deadlines, assessments and calendar events come due
+// (-Dreminders.offsets, default "1d,1h,10m"). Items only carry a date, so they count as due at
+// -Dreminders.dueTime on that day (default 09:00, local time).
+//
+// Each item holds a single timeout in a TimingWheel, set for the next offset still ahead of
+// now. When it fires it is moved on to the following offset, so there is one pending timer
+// per item however many offsets there are, and adding, moving or dropping an item is a
+// constant-time schedule, reschedule or cancel. Not thread-safe; the dashboard drives it on
+// the EDT.
+public class ReminderEngine {
+    private static final long TICK_MILLIS = 1000;
+
+    public interface Listener {
+        void remind(Reminder reminder, Duration before);
+    }
+
+    public static final class Reminder {
+        public final Object item;
+        public final String kind;
+        public final String title;
+        long dueMillis;
+        // Index of the offset the timeout is set for
+        int next;
+
+        Reminder(Object item, String kind, String title) {
+            this.item = item;
+            this.kind = kind;
+            this.title = title;
+        }
+    }
+
+    private final List<Duration> offsets;
+    private final LocalTime dueTime;
+    private final ZoneId zone;
+    private final TimingWheel<Reminder> wheel;
+    private final Map<Object, TimingWheel.Timeout<Reminder>> byItem = new IdentityHashMap<>();
+    private long now;
+
+    // offsets in any order; they are used longest first
+    public ReminderEngine(List<Duration> offsets, LocalTime dueTime, ZoneId zone, long nowMillis) {
+        List<Duration> sorted = new ArrayList<>(new TreeSet<>(offsets));
+        Collections.reverse(sorted);
+        this.offsets = sorted;
+        this.dueTime = dueTime;
+        this.zone = zone;
+        this.wheel = new TimingWheel<>(TICK_MILLIS, nowMillis);
+        this.now = nowMillis;
+    }
+
+    public static ReminderEngine fromProperties(long nowMillis) {
+        List<Duration> offsets = new ArrayList<>();
+        for (String part : System.getProperty("reminders.offsets", "1d,1h,10m").split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) continue;
+            long amount = Long.parseLong(part.substring(0, part.length() - 1));
+            switch (part.charAt(part.length() - 1)) {
+                case 'd': offsets.add(Duration.ofDays(amount)); break;
+                case 'h': offsets.add(Duration.ofHours(amount)); break;
+                case 'm': offsets.add(Duration.ofMinutes(amount)); break;
+                default: throw new IllegalArgumentException("reminders.offsets: expected d, h or m in " + part);
+            }
+        }
+        LocalTime dueTime = LocalTime.parse(System.getProperty("reminders.dueTime", "09:00"));
+        return new ReminderEngine(offsets, dueTime, ZoneId.systemDefault(), nowMillis);
+    }
+
+    // Each add replaces any reminders already set for the item; one without a due date gets none
+    public void add(Deadline deadline) {
+        if (deadline.epochDay == Deadline.NO_DATE) remove(deadline);
+        else schedule(deadline, "Deadline", deadline.title, deadline.epochDay);
+    }
+
+    public void add(Assessment assessment) {
+        if (assessment.epochDay == Assessment.NO_DATE) remove(assessment);
+        else schedule(assessment, "Assessment", assessment.title, assessment.epochDay);
+    }
+
+    // Events of type Assessment mirror an assessment, which has reminders of its own
+    public void add(CalendarEvent event) {
+        if (!"Assessment".equalsIgnoreCase(event.type)) schedule(event, "Event", event.title, event.date.toEpochDay());
+    }
+
+    // Offsets already past are skipped
+    private void schedule(Object item, String kind, String title, long epochDay) {
+        remove(item);
+        Reminder reminder = new Reminder(item, kind, title);
+        reminder.dueMillis = dueMillis(epochDay);
+        if (skipPast(reminder, now) >= 0) byItem.put(item, wheel.schedule(reminder, remindAt(reminder)));
+    }
+
+    // Moves an item's reminders to a new due date
+    public void reschedule(Object item, long epochDay) {
+        TimingWheel.Timeout<Reminder> timeout = byItem.get(item);
+        if (timeout == null) return;
+        Reminder reminder = timeout.payload;
+        reminder.dueMillis = dueMillis(epochDay);
+        reminder.next = 0;
+        if (skipPast(reminder, now) < 0) remove(item);
+        else wheel.reschedule(timeout, remindAt(reminder));
+    }
+
+    public void remove(Object item) {
+        TimingWheel.Timeout<Reminder> timeout = byItem.remove(item);
+        if (timeout != null) wheel.cancel(timeout);
+    }
+
+    public int pending() {
+        return byItem.size();
+    }
+
+    // Fires every reminder due by nowMillis. An item that missed several offsets (the machine
+    // was asleep) gets only the latest of them. Returns how many fired.
+    public int advance(long nowMillis, Listener listener) {
+        now = nowMillis;
+        return wheel.advanceTo(nowMillis, timeout -> {
+            Reminder reminder = timeout.payload;
+            // The last offset already reached is the one worth telling
+            int reached = reminder.next;
+            while (reached + 1 < offsets.size() && reminder.dueMillis - offsets.get(reached + 1).toMillis() <= nowMillis) reached++;
+            listener.remind(reminder, offsets.get(reached));
+            reminder.next = reached + 1;
+            if (skipPast(reminder, nowMillis) < 0) byItem.remove(reminder.item);
+            else wheel.reschedule(timeout, remindAt(reminder));
+        });
+    }
+
+    // Moves reminder.next to the first offset still ahead of nowMillis; -1 if none is
+    private int skipPast(Reminder reminder, long nowMillis) {
+        while (reminder.next < offsets.size() && remindAt(reminder) <= nowMillis) reminder.next++;
+        return reminder.next < offsets.size() ? reminder.next : -1;
+    }
+
+    private long remindAt(Reminder reminder) {
+        return reminder.dueMillis - offsets.get(reminder.next).toMillis();
+    }
+
+    private long dueMillis(long epochDay) {
+        return LocalDate.ofEpochDay(epochDay).atTime(dueTime).atZone(zone).toInstant().toEpochMilli();
+    }
+
+    // "1 day", "2 hours", "10 minutes"
+    public static String describe(Duration offset) {
+        long amount;
+        String unit;
+        if (offset.toMinutes() % (24 * 60) == 0) {
+            amount = offset.toDays();
+            unit = "day";
+        } else if (offset.toMinutes() % 60 == 0) {
+            amount = offset.toHours();
+            unit = "hour";
+        } else {
+            amount = offset.toMinutes();
+            unit = "minute";
+        }
+        return amount + " " + unit + (amount == 1 ? "" : "s");
+    }
+}
@@ -0,0 +1,18 @@
+package core;
+
+public class Resource {
+    public final String name;
+    public final String type;
+    public final String pathOrUrl;
+
+    public Resource(String name, String type, String pathOrUrl) {
+        this.name = name;
+        this.type = type;
+        this.pathOrUrl = pathOrUrl;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + type + ")";
+    }
+}
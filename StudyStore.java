@@ -0,0 +1,167 @@
+package core;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+// Headless entry point to one user's data: a repository per entity plus the activity journal,
+// over the usual file layout in a base directory (null for the working directory):
+//   courses_<user>.txt, resources_<user>.txt, deadlines_<user>.txt, activities_<user>.journal/,
+//   data/assessments_<user>.txt and data/events_<user>.txt
+// Older versions kept one data/assessments.txt and data/events.txt for everybody. Their rows
+// carry no owner, so a user without files of their own starts empty rather than inheriting (and
+// saving, and serving over the API) everyone else's rows. The dashboard hands the shared files
+// once to the first user who logs in to it; see importLegacyAssessments.
+// Touches no AWT or Swing classes, so batch tools, tests and benchmarks can use it directly.
+public class StudyStore implements Closeable {
+    // Newest activities kept on the heap by the journal
+    public static final int RECENT_ACTIVITIES = 32;
+
+    private final File dir;
+    private final String username;
+    private final CourseRepository courses;
+    private final DeadlineRepository deadlines;
+    private final AssessmentRepository assessments;
+    private final EventRepository events;
+    private ActivityJournal activities;
+
+    public StudyStore(File dir, String username) {
+        this.dir = dir;
+        this.username = username;
+        this.courses = new CourseRepository(file("courses_" + username + ".txt"), file("resources_" + username + ".txt"));
+        this.deadlines = new DeadlineRepository(file("deadlines_" + username + ".txt"));
+        this.assessments = new AssessmentRepository(file("data/assessments_" + username + ".txt"));
+        this.events = new EventRepository(file("data/events_" + username + ".txt"));
+    }
+
+    // Opens the store and loads every section
+    public static StudyStore open(File dir, String username) throws IOException {
+        StudyStore store = new StudyStore(dir, username);
+        store.courses.load();
+        store.deadlines.load();
+        store.assessments.load();
+        store.events.load();
+        store.openActivities(UnaryOperator.identity());
+        return store;
+    }
+
+    public File file(String name) {
+        return dir == null ? new File(name) : new File(dir, name);
+    }
+
+    public String username() {
+        return username;
+    }
+
+    public CourseRepository courses() {
+        return courses;
+    }
+
+    public DeadlineRepository deadlines() {
+        return deadlines;
+    }
+
+    public AssessmentRepository assessments() {
+        return assessments;
+    }
+
+    public EventRepository events() {
+        return events;
+    }
+
+    // Null until openActivities has run
+    public ActivityJournal activities() {
+        return activities;
+    }
+
+    public File activitiesDir() {
+        return file("activities_" + username + ".journal");
+    }
+
+    // Plain-text history written by older versions; imported into the journal once
+    public File legacyActivitiesFile() {
+        return file("activities_" + username + ".txt");
+    }
+
+    // Shared files written by older versions
+    public File legacyAssessmentsFile() {
+        return file("data/assessments.txt");
+    }
+
+    public File legacyEventsFile() {
+        return file("data/events.txt");
+    }
+
+    // One-time migration of the shared file: if this user has no assessments file yet, it takes
+    // over the shared one, which is renamed to .imported. The rename is the claim, so only one
+    // user (and one process) ever gets the rows. Only the dashboard calls this, since on a
+    // single-user install the rows belong to whoever uses it; the API never inherits them.
+    public void importLegacyAssessments() throws IOException {
+        claimLegacy(legacyAssessmentsFile(), assessments.file());
+    }
+
+    public void importLegacyEvents() throws IOException {
+        claimLegacy(legacyEventsFile(), events.file());
+    }
+
+    private static void claimLegacy(File shared, File own) throws IOException {
+        if (own.exists() || !shared.exists()) return;
+        File imported = new File(shared.getPath() + ".imported");
+        if (!shared.renameTo(imported)) return;
+        try {
+            Files.copy(imported.toPath(), own.toPath());
+        } catch (FileAlreadyExistsException e) {
+            // A first save got there in between; the shared rows stay in the .imported file
+        }
+    }
+
+    public List<Activity> readLegacyActivities() {
+        List<Activity> list = new ArrayList<>();
+        TextFiles.readLines(legacyActivitiesFile(), line -> {
+            Activity activity = Activity.fromString(line);
+            if (activity != null) list.add(activity);
+        });
+        return list;
+    }
+
+    // Opens the journal, migrating the legacy activities file the first time. pending may
+    // change the legacy rows before they are imported (the dashboard replays its change log).
+    // Segment size and retention come from -Ddashboard.activities.segmentKB and
+    // -Ddashboard.activities.segments.
+    public ActivityJournal openActivities(UnaryOperator<List<Activity>> pending) throws IOException {
+        ActivityJournal opened = new ActivityJournal(activitiesDir(),
+                Integer.getInteger("dashboard.activities.segmentKB", 256) * 1024,
+                Integer.getInteger("dashboard.activities.segments", 8), RECENT_ACTIVITIES);
+        File legacy = legacyActivitiesFile();
+        if (opened.isNew()) {
+            List<String> lines = new ArrayList<>();
+            for (Activity activity : pending.apply(readLegacyActivities())) {
+                lines.add(activity.toString());
+            }
+            opened.importLines(lines);
+        }
+        if (legacy.exists()) {
+            legacy.renameTo(new File(legacy.getPath() + ".imported"));
+        }
+        activities = opened;
+        return opened;
+    }
+
+    // Writes every loaded section back; activities are durable as they are appended
+    public void saveAll() throws IOException {
+        courses.save();
+        deadlines.save();
+        assessments.save();
+        events.save();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (activities != null) activities.close();
+    }
+}
@@ -0,0 +1,206 @@
+package core;
+
+import metrics.Metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Loaded StudyStores for many users at once, for long-running services.
+//
+// Each user maps to one of a fixed set of striped read/write locks: reads of a user share it,
+// mutations of a user are serialized by it, and users on different stripes never wait for
+// each other. There is no lock across all users; the map is concurrent and LRU order comes
+// from per-user access stamps.
+//
+// Users are loaded on first access. When the estimated heap of all loaded users passes the
+// budget, the least recently used ones are dropped until it fits, and users idle for longer
+// than the idle limit are dropped by evictIdle(). Mutations are written through to the user's
+// files before the lock is released, so an evicted user never has unsaved changes.
+public class TenantCache {
+    // Rough per-row heap cost on top of the characters: the entity, its fields' String headers
+    // and the list or map slot holding it
+    private static final int ROW_OVERHEAD = 96;
+
+    private static final Metrics.Counter hits = Metrics.counter("tenants.hits");
+    private static final Metrics.Counter misses = Metrics.counter("tenants.misses");
+    private static final Metrics.Counter evictions = Metrics.counter("tenants.evictions");
+
+    public interface Action<T> {
+        T apply(StudyStore store) throws IOException;
+    }
+
+    private static final class Tenant {
+        final StudyStore store;
+        // System.nanoTime() of the last read or write
+        volatile long lastAccess;
+        volatile long bytes;
+
+        Tenant(StudyStore store) {
+            this.store = store;
+        }
+    }
+
+    private final File dir;
+    private final long budgetBytes;
+    private final long idleNanos;
+    private final ReadWriteLock[] stripes;
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    // Only one thread sweeps at a time; the others carry on instead of queueing behind it
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // dir is the data directory (null for the working directory)
+    public TenantCache(File dir, long budgetBytes, long idleMillis, int stripeCount) {
+        this.dir = dir;
+        this.budgetBytes = budgetBytes;
+        this.idleNanos = idleMillis * 1_000_000L;
+        this.stripes = new ReadWriteLock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) stripes[i] = new ReentrantReadWriteLock();
+        Metrics.gauge("tenants.loaded", tenants::size);
+        Metrics.gauge("tenants.bytes", totalBytes::get);
+    }
+
+    private ReadWriteLock stripe(String user) {
+        int h = user.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (stripes.length - 1)];
+    }
+
+    // Runs action with the user's data under the shared lock; action must not modify it
+    public <T> T read(String user, Action<T> action) throws IOException {
+        ReadWriteLock lock = stripe(user);
+        lock.readLock().lock();
+        try {
+            Tenant tenant = tenants.get(user);
+            if (tenant != null) {
+                hits.increment();
+                tenant.lastAccess = System.nanoTime();
+                return action.apply(tenant.store);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Miss: load under the exclusive lock, then downgrade so the action still only reads
+        Tenant tenant;
+        lock.writeLock().lock();
+        try {
+            tenant = loadLocked(user);
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            return action.apply(tenant.store);
+        } finally {
+            lock.readLock().unlock();
+            evictOverBudget();
+        }
+    }
+
+    // Runs action with the user's data under the exclusive lock. The action saves what it
+    // changes before returning.
+    public <T> T write(String user, Action<T> action) throws IOException {
+        ReadWriteLock lock = stripe(user);
+        lock.writeLock().lock();
+        try {
+            Tenant tenant = loadLocked(user);
+            T result;
+            try {
+                result = action.apply(tenant.store);
+            } catch (IOException | RuntimeException e) {
+                // The change may be in memory but not on disk; reload from the files next time
+                tenants.remove(user);
+                totalBytes.addAndGet(-tenant.bytes);
+                throw e;
+            }
+            long bytes = estimateBytes(tenant.store);
+            totalBytes.addAndGet(bytes - tenant.bytes);
+            tenant.bytes = bytes;
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+            evictOverBudget();
+        }
+    }
+
+    // Caller holds the user's write lock
+    private Tenant loadLocked(String user) {
+        Tenant tenant = tenants.get(user);
+        if (tenant == null) {
+            misses.increment();
+            StudyStore store = new StudyStore(dir, user);
+            store.courses().load();
+            store.deadlines().load();
+            store.assessments().load();
+            store.events().load();
+            tenant = new Tenant(store);
+            tenant.bytes = estimateBytes(store);
+            totalBytes.addAndGet(tenant.bytes);
+            tenants.put(user, tenant);
+        }
+        tenant.lastAccess = System.nanoTime();
+        return tenant;
+    }
+
+    // Drops least recently used users until the estimate is within budget
+    private void evictOverBudget() {
+        if (totalBytes.get() <= budgetBytes || !evicting.compareAndSet(false, true)) return;
+        try {
+            List<Map.Entry<String, Tenant>> byAge = new ArrayList<>(tenants.entrySet());
+            byAge.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            for (Map.Entry<String, Tenant> entry : byAge) {
+                if (totalBytes.get() <= budgetBytes) break;
+                evict(entry.getKey(), entry.getValue().lastAccess);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    // Drops users not accessed for the idle limit; call it periodically
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Map.Entry<String, Tenant> entry : tenants.entrySet()) {
+            long lastAccess = entry.getValue().lastAccess;
+            if (now - lastAccess >= idleNanos) evict(entry.getKey(), lastAccess);
+        }
+    }
+
+    // Skips the user if it was used again after the caller picked it
+    private void evict(String user, long seenAccess) {
+        ReadWriteLock lock = stripe(user);
+        lock.writeLock().lock();
+        try {
+            Tenant tenant = tenants.get(user);
+            if (tenant == null || tenant.lastAccess != seenAccess) return;
+            tenants.remove(user);
+            totalBytes.addAndGet(-tenant.bytes);
+            evictions.increment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return tenants.size();
+    }
+
+    public long estimatedBytes() {
+        return totalBytes.get();
+    }
+
+    static long estimateBytes(StudyStore store) {
+        long bytes = 0;
+        for (List<String> lines : Arrays.asList(store.courses().courseLines(), store.courses().resourceLines(),
+                store.deadlines().lines(), store.assessments().lines(), store.events().lines())) {
+            for (String line : lines) bytes += ROW_OVERHEAD + 2L * line.length();
+        }
+        return bytes;
+    }
+}
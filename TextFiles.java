@@ -0,0 +1,49 @@
+package core;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Line-oriented reading and crash-safe rewriting of the data files
+public final class TextFiles {
+    private TextFiles() {
+    }
+
+    // Passes each non-blank line, trimmed, to the consumer; a missing file has no lines
+    public static void readLines(File file, Consumer<String> consumer) {
+        if (!file.exists()) return;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    consumer.accept(line.trim());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes to a sibling temp file, forces it to disk and swaps it in, so a crash never leaves
+    // a half-written file. Returns the number of bytes written.
+    public static long writeAtomically(File target, List<String> lines) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) parent.mkdirs();
+
+        File tmp = new File(target.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmp);
+             BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(out))) {
+            for (String line : lines) {
+                bw.write(line);
+                bw.newLine();
+            }
+            bw.flush();
+            out.getFD().sync();
+        }
+        long bytes = tmp.length();
+        Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return bytes;
+    }
+}
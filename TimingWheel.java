@@ -0,0 +1,135 @@
+package core;
+
+import java.util.function.Consumer;
+
+// Hierarchical timing wheel: many pending timeouts, O(1) to schedule, reschedule or cancel.
+//
+// Time is counted in ticks from an origin. There are LEVELS wheels of SLOTS slots; level 0
+// holds timeouts due within SLOTS ticks, one tick per slot, and each level above covers SLOTS
+// times the span of the one below. A timeout goes into the level its distance falls in, in
+// the slot given by its due tick's bits for that level. Each time the lower wheel wraps, the
+// next slot of the level above is emptied and its timeouts placed again, now closer, so they
+// cascade down until level 0 fires them. Slots are intrusive doubly linked lists, which is
+// what makes cancel and reschedule constant time.
+//
+// Not thread-safe: one thread schedules and calls advanceTo.
+public class TimingWheel<T> {
+    private static final int BITS = 6;
+    private static final int SLOTS = 1 << BITS;
+    private static final int MASK = SLOTS - 1;
+    // 64^6 ticks: over two thousand years at one-second ticks
+    private static final int LEVELS = 6;
+    private static final long MAX_DISTANCE = (1L << (BITS * LEVELS)) - 1;
+
+    public static final class Timeout<T> {
+        public final T payload;
+        long dueTick;
+        // Index into heads, or -1 when not scheduled
+        int bucket = -1;
+        Timeout<T> prev;
+        Timeout<T> next;
+
+        Timeout(T payload) {
+            this.payload = payload;
+        }
+
+        public boolean isScheduled() {
+            return bucket >= 0;
+        }
+    }
+
+    private final long originMillis;
+    private final long tickMillis;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Timeout<T>[] heads = new Timeout[LEVELS * SLOTS];
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.originMillis = nowMillis;
+    }
+
+    public Timeout<T> schedule(T payload, long atMillis) {
+        Timeout<T> timeout = new Timeout<>(payload);
+        reschedule(timeout, atMillis);
+        return timeout;
+    }
+
+    // Moves a timeout, scheduled or not, to a new time. Times already past fire on the next tick.
+    public void reschedule(Timeout<T> timeout, long atMillis) {
+        cancel(timeout);
+        // Rounded up, so nothing fires before its time
+        long tick = Math.floorDiv(atMillis - originMillis + tickMillis - 1, tickMillis);
+        timeout.dueTick = Math.max(tick, currentTick + 1);
+        place(timeout);
+        size++;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket < 0) return false;
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Runs the clock up to nowMillis, handing each timeout that comes due to expired (which may
+    // schedule, reschedule or cancel others). Returns how many fired.
+    public int advanceTo(long nowMillis, Consumer<Timeout<T>> expired) {
+        long target = Math.floorDiv(nowMillis - originMillis, tickMillis);
+        if (size == 0 && target > currentTick) {
+            currentTick = target;
+            return 0;
+        }
+        int fired = 0;
+        while (currentTick < target) {
+            long tick = ++currentTick;
+            // Cascade each level whose lower wheel has just wrapped
+            for (int level = 1; level < LEVELS && ((tick >>> (BITS * (level - 1))) & MASK) == 0; level++) {
+                int bucket = level * SLOTS + (int) ((tick >>> (BITS * level)) & MASK);
+                Timeout<T> t;
+                while ((t = heads[bucket]) != null) {
+                    unlink(t);
+                    place(t);
+                }
+            }
+            int bucket = (int) (tick & MASK);
+            Timeout<T> t;
+            while ((t = heads[bucket]) != null) {
+                unlink(t);
+                size--;
+                fired++;
+                expired.accept(t);
+            }
+            if (size == 0 && target > currentTick) currentTick = target;
+        }
+        return fired;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long distance = Math.min(timeout.dueTick - currentTick, MAX_DISTANCE);
+        if (distance < 0) distance = 0;
+        int level = 0;
+        while (distance >= 1L << (BITS * (level + 1))) level++;
+        int bucket = level * SLOTS + (int) ((timeout.dueTick >>> (BITS * level)) & MASK);
+        Timeout<T> head = heads[bucket];
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        heads[bucket] = timeout;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        if (timeout.prev != null) timeout.prev.next = timeout.next;
+        else heads[timeout.bucket] = timeout.next;
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.bucket = -1;
+    }
+}
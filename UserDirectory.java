@@ -0,0 +1,441 @@
+package auth;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// Memory-mapped, open-addressing user directory for very large account counts.
+//
+// users.idx holds a header followed by fixed 16-byte slots: [int hash][int unused][long record offset].
+// users.dat holds the credential records: [short nameLen][name chars][short passLen][pass chars].
+// It is mapped in 1 GiB chunks addressed by long offsets, and no record crosses a chunk boundary.
+// Replaced records stay behind as dead bytes until compact() rewrites the live ones.
+// Lookups hash the normalized name char by char and compare in place, so they touch a few
+// pages and allocate nothing on the heap. As in users.txt, names that differ only by case are
+// separate rows; they share a hash, so they sit in one probe run and a lookup collects them all.
+class UserDirectory implements Closeable {
+    private static final int MAGIC = 0x55534452; // "USDR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final long DATA_CHUNK = 1L << 20;
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+    // Header fields in users.idx
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_SLOTS = 8;
+    private static final int H_COUNT = 12;
+    private static final int H_DATA_END = 16;
+    private static final int H_DEAD_BYTES = 24;
+
+    private final File indexFile;
+    private final File dataFile;
+    private FileChannel indexChannel;
+    private FileChannel dataChannel;
+    private MappedByteBuffer index;
+    // Identifies the users.idx this instance mapped; rehash and compaction replace the file
+    private Object indexKey;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private long mappedEnd;
+    private int slotCount;
+
+    private UserDirectory(File indexFile, File dataFile) {
+        this.indexFile = indexFile;
+        this.dataFile = dataFile;
+    }
+
+    static UserDirectory open(File indexFile, File dataFile) throws IOException {
+        UserDirectory dir = new UserDirectory(indexFile, dataFile);
+        boolean fresh = !indexFile.exists() || indexFile.length() < HEADER_SIZE;
+        dir.map(fresh ? INITIAL_SLOTS : 0);
+        return dir;
+    }
+
+    // Builds a directory from the comma-separated users.txt format, one slot per row
+    static UserDirectory importFrom(File usersTxt, File indexFile, File dataFile) throws IOException {
+        indexFile.delete();
+        dataFile.delete();
+        UserDirectory dir = open(indexFile, dataFile);
+        if (usersTxt.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(usersTxt))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts.length == 2) {
+                        dir.add(parts[0], parts[1]);
+                    }
+                }
+            }
+        }
+        dir.force();
+        return dir;
+    }
+
+    boolean contains(String username) {
+        remapIfGrown();
+        return slotOffset(findSlot(username, hash(username))) != 0;
+    }
+
+    // Returns {stored name, credential} for every row whose name matches ignoring case; empty if none
+    List<String[]> accounts(String username) {
+        remapIfGrown();
+        int h = hash(username);
+        int mask = slotCount - 1;
+        List<String[]> found = new ArrayList<>(1);
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int pos = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = index.getLong(pos + 8);
+            if (offset == 0) return found;
+            if (index.getInt(pos) == h && nameEquals(offset, username)) {
+                found.add(new String[]{readName(offset), readCredential(offset)});
+            }
+        }
+    }
+
+    // Adds a row unless one with exactly this name and credential is already stored
+    void add(String username, String password) throws IOException {
+        remapIfGrown();
+        if ((index.getInt(H_COUNT) + 1) * 2 > slotCount) {
+            rehash(slotCount * 2);
+        }
+        int h = hash(username);
+        int mask = slotCount - 1;
+        int slot = h & mask;
+        while (true) {
+            int pos = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = index.getLong(pos + 8);
+            if (offset == 0) break;
+            if (index.getInt(pos) == h && nameEqualsExactly(offset, username)
+                    && readCredential(offset).equals(password)) return;
+            slot = (slot + 1) & mask;
+        }
+        long offset = appendRecord(username, password);
+        int pos = HEADER_SIZE + slot * SLOT_SIZE;
+        index.putInt(pos, h);
+        index.putLong(pos + 8, offset);
+        index.putInt(H_COUNT, index.getInt(H_COUNT) + 1);
+    }
+
+    // Points every row matching username (ignoring case) whose credential is oldPassword at a new
+    // record with the same name and newPassword; replaced records become dead space in users.dat
+    // until the next compact()
+    void replace(String username, String oldPassword, String newPassword) throws IOException {
+        remapIfGrown();
+        int h = hash(username);
+        int mask = slotCount - 1;
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int pos = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = index.getLong(pos + 8);
+            if (offset == 0) return;
+            if (index.getInt(pos) == h && nameEquals(offset, username) && readCredential(offset).equals(oldPassword)) {
+                index.putLong(pos + 8, appendRecord(readName(offset), newPassword));
+                index.putLong(H_DEAD_BYTES, index.getLong(H_DEAD_BYTES) + recordLength(offset));
+            }
+        }
+    }
+
+    // Walks every stored name; used to rebuild derived structures such as the bloom filter
+    void forEachName(Consumer<String> action) {
+        remapIfGrown();
+        for (int i = 0; i < slotCount; i++) {
+            long offset = slotOffset(i);
+            if (offset == 0) continue;
+            action.accept(readName(offset));
+        }
+    }
+
+    int size() {
+        return index.getInt(H_COUNT);
+    }
+
+    // True once at least half of users.dat, and at least a megabyte, is replaced records
+    boolean needsCompaction() {
+        remapIfGrown();
+        long dead = index.getLong(H_DEAD_BYTES);
+        return dead >= DATA_CHUNK && dead * 2 >= index.getLong(H_DATA_END);
+    }
+
+    // Rewrites users.dat with only the records the index points at, keeping every slot where it
+    // is. Both files are built beside the originals and moved over them, users.dat first, so an
+    // instance that has not yet noticed the new index keeps reading its old, consistent pair.
+    // Callers hold the users.lock file lock, as for add and replace.
+    void compact() throws IOException {
+        remapIfGrown();
+        if (index.getLong(H_DEAD_BYTES) == 0) return;
+        File indexTmp = new File(indexFile.getPath() + ".tmp");
+        File dataTmp = new File(dataFile.getPath() + ".tmp");
+        indexTmp.delete();
+        dataTmp.delete();
+        UserDirectory next = new UserDirectory(indexTmp, dataTmp);
+        next.map(slotCount);
+        try {
+            for (int i = 0; i < slotCount; i++) {
+                int pos = HEADER_SIZE + i * SLOT_SIZE;
+                long offset = index.getLong(pos + 8);
+                if (offset == 0) continue;
+                next.index.putInt(pos, index.getInt(pos));
+                next.index.putLong(pos + 8, next.appendRecord(readName(offset), readCredential(offset)));
+            }
+            next.index.putInt(H_COUNT, index.getInt(H_COUNT));
+        } finally {
+            next.close();
+        }
+        indexChannel.close();
+        dataChannel.close();
+        Files.move(dataTmp.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(indexTmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(0);
+    }
+
+    void force() {
+        index.force();
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        indexChannel.close();
+        dataChannel.close();
+    }
+
+    // Returns the slot holding username, or the empty slot where it would go
+    private int findSlot(String username, int h) {
+        int mask = slotCount - 1;
+        int slot = h & mask;
+        while (true) {
+            int pos = HEADER_SIZE + slot * SLOT_SIZE;
+            long offset = index.getLong(pos + 8);
+            if (offset == 0) return slot;
+            if (index.getInt(pos) == h && nameEquals(offset, username)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private long slotOffset(int slot) {
+        return index.getLong(HEADER_SIZE + slot * SLOT_SIZE + 8);
+    }
+
+    // The chunk holding the record at offset, and the record's position within it
+    private MappedByteBuffer chunk(long offset) {
+        return chunks.get((int) (offset >>> CHUNK_SHIFT));
+    }
+
+    private static int within(long offset) {
+        return (int) (offset & (CHUNK_SIZE - 1));
+    }
+
+    private String readName(long offset) {
+        MappedByteBuffer data = chunk(offset);
+        int pos = within(offset);
+        int len = data.getShort(pos);
+        char[] name = new char[len];
+        for (int c = 0; c < len; c++) {
+            name[c] = data.getChar(pos + 2 + c * 2);
+        }
+        return new String(name);
+    }
+
+    private String readCredential(long offset) {
+        MappedByteBuffer data = chunk(offset);
+        int nameLen = data.getShort(within(offset));
+        int passPos = within(offset) + 2 + nameLen * 2;
+        int passLen = data.getShort(passPos);
+        char[] chars = new char[passLen];
+        for (int i = 0; i < passLen; i++) {
+            chars[i] = data.getChar(passPos + 2 + i * 2);
+        }
+        return new String(chars);
+    }
+
+    private long recordLength(long offset) {
+        MappedByteBuffer data = chunk(offset);
+        int nameLen = data.getShort(within(offset));
+        int passLen = data.getShort(within(offset) + 2 + nameLen * 2);
+        return 4L + (nameLen + passLen) * 2L;
+    }
+
+    private boolean nameEqualsExactly(long offset, String username) {
+        MappedByteBuffer data = chunk(offset);
+        int pos = within(offset);
+        int len = data.getShort(pos);
+        if (len != username.length()) return false;
+        for (int i = 0; i < len; i++) {
+            if (data.getChar(pos + 2 + i * 2) != username.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private boolean nameEquals(long offset, String username) {
+        MappedByteBuffer data = chunk(offset);
+        int pos = within(offset);
+        int len = data.getShort(pos);
+        if (len != username.length()) return false;
+        for (int i = 0; i < len; i++) {
+            char stored = data.getChar(pos + 2 + i * 2);
+            if (Character.toLowerCase(stored) != Character.toLowerCase(username.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    private long appendRecord(String username, String password) throws IOException {
+        long end = index.getLong(H_DATA_END);
+        long needed = 4L + (username.length() + password.length()) * 2L;
+        // A record that would cross into the next chunk starts there instead
+        if (within(end) + needed > CHUNK_SIZE) {
+            end = (end | (CHUNK_SIZE - 1)) + 1;
+        }
+        if (end + needed > mappedEnd) {
+            // Doubling stops at the end of the record's chunk, so a large file grows a chunk at a time
+            long chunkEnd = (end | (CHUNK_SIZE - 1)) + 1;
+            mapData(Math.max(Math.min(mappedEnd * 2, chunkEnd), end + needed + DATA_CHUNK));
+        }
+        MappedByteBuffer data = chunk(end);
+        int pos = within(end);
+        data.putShort(pos, (short) username.length());
+        pos += 2;
+        for (int i = 0; i < username.length(); i++, pos += 2) {
+            data.putChar(pos, username.charAt(i));
+        }
+        data.putShort(pos, (short) password.length());
+        pos += 2;
+        for (int i = 0; i < password.length(); i++, pos += 2) {
+            data.putChar(pos, password.charAt(i));
+        }
+        index.putLong(H_DATA_END, end + needed);
+        return end;
+    }
+
+    private void rehash(int newSlots) throws IOException {
+        File tmp = new File(indexFile.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer next = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newSlots * SLOT_SIZE);
+            next.putInt(H_MAGIC, MAGIC);
+            next.putInt(H_VERSION, VERSION);
+            next.putInt(H_SLOTS, newSlots);
+            next.putInt(H_COUNT, index.getInt(H_COUNT));
+            next.putLong(H_DATA_END, index.getLong(H_DATA_END));
+            next.putLong(H_DEAD_BYTES, index.getLong(H_DEAD_BYTES));
+            int mask = newSlots - 1;
+            for (int i = 0; i < slotCount; i++) {
+                int pos = HEADER_SIZE + i * SLOT_SIZE;
+                long offset = index.getLong(pos + 8);
+                if (offset == 0) continue;
+                int h = index.getInt(pos);
+                int slot = h & mask;
+                while (next.getLong(HEADER_SIZE + slot * SLOT_SIZE + 8) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                next.putInt(HEADER_SIZE + slot * SLOT_SIZE, h);
+                next.putLong(HEADER_SIZE + slot * SLOT_SIZE + 8, offset);
+            }
+            next.force();
+        }
+        indexChannel.close();
+        dataChannel.close();
+        Files.move(tmp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        map(0);
+    }
+
+    private void map(int freshSlots) throws IOException {
+        indexFile.getParentFile().mkdirs();
+        indexChannel = FileChannel.open(indexFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (freshSlots > 0) {
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) freshSlots * SLOT_SIZE);
+            index.putInt(H_MAGIC, MAGIC);
+            index.putInt(H_VERSION, VERSION);
+            index.putInt(H_SLOTS, freshSlots);
+            index.putInt(H_COUNT, 0);
+            // Offset 0 marks an empty slot, so records start after a 2-byte pad
+            index.putLong(H_DATA_END, 2);
+        } else {
+            MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            if (header.getInt(H_MAGIC) != MAGIC || header.getInt(H_VERSION) != VERSION) {
+                throw new IOException("Not a user directory: " + indexFile);
+            }
+            int slots = header.getInt(H_SLOTS);
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * SLOT_SIZE);
+        }
+        slotCount = index.getInt(H_SLOTS);
+        indexKey = fileKey(indexFile);
+
+        // Reopened with the index, since compaction replaces both files
+        dataChannel = FileChannel.open(dataFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        chunks.clear();
+        mappedEnd = 0;
+        mapData(Math.max(dataChannel.size(), Math.max(DATA_CHUNK, index.getLong(H_DATA_END))));
+    }
+
+    // Maps users.dat up to size in CHUNK_SIZE pieces; only the last one may be shorter
+    private void mapData(long size) throws IOException {
+        int count = (int) ((size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+        for (int i = 0; i < count; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long length = Math.min(CHUNK_SIZE, size - start);
+            if (i < chunks.size() && chunks.get(i).capacity() >= length) continue;
+            MappedByteBuffer chunk = dataChannel.map(FileChannel.MapMode.READ_WRITE, start, length);
+            if (i < chunks.size()) {
+                chunks.set(i, chunk);
+            } else {
+                chunks.add(chunk);
+            }
+        }
+        int last = chunks.size() - 1;
+        mappedEnd = ((long) last << CHUNK_SHIFT) + chunks.get(last).capacity();
+    }
+
+    private static Object fileKey(File file) throws IOException {
+        return Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+    }
+
+    // Another instance may have rehashed or compacted the index, or extended the data file
+    private void remapIfGrown() {
+        try {
+            if (indexFile.length() != index.capacity() || !Objects.equals(fileKey(indexFile), indexKey)) {
+                indexChannel.close();
+                dataChannel.close();
+                map(0);
+            } else if (index.getLong(H_DATA_END) > mappedEnd) {
+                mapData(dataChannel.size());
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static int hash(String username) {
+        int h = 0;
+        for (int i = 0; i < username.length(); i++) {
+            h = 31 * h + Character.toLowerCase(username.charAt(i));
+        }
+        // Spread the bits so linear probing does not cluster on similar names
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File source = new File(args.length > 0 ? args[0] : "data/users.txt");
+        try (UserDirectory dir = importFrom(source, new File("data/users.idx"), new File("data/users.dat"))) {
+            System.out.println("Imported " + dir.size() + " users from " + source);
+        }
+    }
+}
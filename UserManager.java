@@ -1,61 +1,408 @@
 package auth;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import metrics.Metrics;
 
 public class UserManager {
-    private static final String FILE_NAME = "data/users.txt";
-    private static final File FILE = new File(FILE_NAME);
+    // -Dauth.dataDir moves the user store, e.g. to a scratch directory for benchmarks
+    private static final File DATA_DIR = new File(System.getProperty("auth.dataDir", "data"));
+    private static final File FILE = new File(DATA_DIR, "users.txt");
+    // Separate lock file so compaction can replace users.txt while other instances wait on the lock
+    private static final File LOCK_FILE = new File(DATA_DIR, "users.lock");
 
-    public static boolean isUserExists(String username) {
+    private static final File BLOOM_FILE = new File(DATA_DIR, "users.bloom");
+
+    // Compact once this many rows are duplicates or unparseable
+    private static final int COMPACT_THRESHOLD = 64;
+
+    // In-memory index of users.txt, keyed by lower-cased username, holding {name, credential} rows.
+    // Reloaded only when the file's modification time or size changes.
+    private static final Map<String, List<String[]>> users = new HashMap<>();
+    private static long loadedModified = -1;
+    private static long loadedLength = -1;
+    private static int deadRows = 0;
+
+    // Optional memory-mapped storage, enabled with -Dusers.store=mmap
+    private static final UserDirectory directory = openDirectory();
+
+    // Loaded on first use; lets availability checks skip the lookup for names that are definitely free.
+    // Volatile so isTakenAsync can read it without taking the class lock.
+    private static volatile UsernameBloomFilter bloom;
+
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "users-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+    private static boolean compactionQueued = false;
+
+    // Availability lookups for isTakenAsync, kept off the PBKDF2 pool so typing never queues
+    // behind logins and registrations
+    private static final ExecutorService lookups = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "users-lookup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final AtomicLong registrations = new AtomicLong();
+    private static final AtomicLong registrationNanos = new AtomicLong();
+
+    private static final Metrics.Timer validateTimer = Metrics.timer("auth.validateUser");
+
+    static {
+        Metrics.gauge("auth.usersFileBytes", FILE::length);
+        Metrics.gauge("auth.registrations", registrations::get);
+    }
+
+    public static synchronized boolean isUserExists(String username) {
+        // Not short-circuited on the bloom filter: this instance's copy can miss names
+        // another one registered since it was loaded
+        if (directory != null) {
+            return directory.contains(username);
+        }
+        refreshIndex();
+        return users.containsKey(normalize(username));
+    }
+
+    public static boolean validateUser(String username, String password) {
+        return authenticate(username, password) != null;
+    }
+
+    // Verifies against the stored hash (or legacy plaintext row) and upgrades the row on success.
+    // Returns the name as stored in the row that verified, or null. Names match ignoring case, so
+    // callers key files and sessions by the returned spelling rather than what was typed.
+    // This is CPU-heavy by design; UI code should use authenticateAsync.
+    public static String authenticate(String username, String password) {
+        long t = validateTimer.start();
+        try {
+            for (String[] account : accounts(username)) {
+                String stored = account[1];
+                if (PasswordHasher.verify(stored, password)) {
+                    if (PasswordHasher.needsRehash(stored)) {
+                        updateCredential(account[0], stored, PasswordHasher.hash(password));
+                    }
+                    return account[0];
+                }
+            }
+            return null;
+        } finally {
+            validateTimer.stop(t);
+        }
+    }
+
+    public static CompletableFuture<String> authenticateAsync(String username, String password) {
+        return PasswordHasher.submit(() -> authenticate(username, password));
+    }
+
+    // For live feedback while typing. A loaded bloom filter answers most free names right here on
+    // the caller's thread; the rest need the lookup, which can wait on the users.txt lock behind a
+    // compaction or credential rewrite, so it runs in the background rather than on the EDT.
+    public static CompletableFuture<Boolean> isTakenAsync(String username) {
+        UsernameBloomFilter filter = bloom;
+        if (filter != null && !filter.mightContain(username)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return CompletableFuture.supplyAsync(() -> mightExist(username) && isUserExists(username), lookups);
+    }
+
+    private static synchronized List<String[]> accounts(String username) {
+        if (directory != null) {
+            return directory.accounts(username);
+        }
+        refreshIndex();
+        List<String[]> rows = users.get(normalize(username));
+        return rows == null ? Collections.emptyList() : new ArrayList<>(rows);
+    }
+
+    // Cheap in-memory answer for live feedback while typing: false means the name is definitely free
+    public static synchronized boolean mightExist(String username) {
+        return ensureBloom().mightContain(username);
+    }
+
+    public static boolean registerUser(String username, String password) {
+        return storeNewUser(username, PasswordHasher.hash(password));
+    }
+
+    public static CompletableFuture<Boolean> registerUserAsync(String username, String password) {
+        return PasswordHasher.submit(() -> registerUser(username, password));
+    }
+
+    // Check-and-append runs under an exclusive file lock, so two app instances
+    // sharing the data directory can never both register the same name.
+    @SuppressWarnings("try")
+    private static synchronized boolean storeNewUser(String username, String password) {
+        long start = System.nanoTime();
         try {
-            if (!FILE.exists()) return false;
-            BufferedReader reader = new BufferedReader(new FileReader(FILE));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts[0].equalsIgnoreCase(username)) {
-                    reader.close();
+            FILE.getParentFile().mkdirs();
+            try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+                if (directory != null) {
+                    if (directory.contains(username)) return false;
+                    directory.add(username, password);
+                    directory.force();
+                    recordInBloom(username);
                     return true;
                 }
+                refreshIndex();
+                String key = normalize(username);
+                if (users.containsKey(key)) return false;
+
+                byte[] row = (username + "," + password + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                try (FileChannel channel = FileChannel.open(FILE.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(row);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+                users.computeIfAbsent(key, k -> new ArrayList<>(1)).add(new String[]{username, password});
+                loadedModified = FILE.lastModified();
+                loadedLength = FILE.length();
+                recordInBloom(username);
+                return true;
             }
-            reader.close();
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            registrations.incrementAndGet();
+            registrationNanos.addAndGet(System.nanoTime() - start);
         }
         return false;
     }
 
-    public static boolean validateUser(String username, String password) {
-        try {
-            if (!FILE.exists()) return false;
-            BufferedReader reader = new BufferedReader(new FileReader(FILE));
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                if (parts.length == 2 && parts[0].equalsIgnoreCase(username) && parts[1].equals(password)) {
-                    reader.close();
-                    return true;
+    public static long getRegistrationCount() {
+        return registrations.get();
+    }
+
+    public static long getRegistrationNanos() {
+        return registrationNanos.get();
+    }
+
+    // Swaps the credential that just verified for its upgraded form. Only rows for this name
+    // holding exactly that credential change, each keeping its own spelling of the name; case
+    // variants with other credentials are separate accounts and are left alone.
+    @SuppressWarnings("try")
+    private static synchronized void updateCredential(String username, String verified, String credential) {
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            if (directory != null) {
+                directory.replace(username, verified, credential);
+                directory.force();
+                if (directory.needsCompaction()) queueCompaction();
+                return;
+            }
+            String key = normalize(username);
+            List<String> rows = new ArrayList<>();
+            boolean replaced = false;
+            try (BufferedReader reader = new BufferedReader(new FileReader(FILE))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts.length == 2 && normalize(parts[0]).equals(key) && parts[1].equals(verified)) {
+                        rows.add(parts[0] + "," + credential);
+                        replaced = true;
+                    } else {
+                        rows.add(line);
+                    }
                 }
             }
-            reader.close();
+            // Another instance already upgraded or removed the row
+            if (!replaced) return;
+            writeRows(rows);
+            loadedModified = -1;
+            loadedLength = -1;
+            refreshIndex();
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return false;
     }
 
-    public static boolean registerUser(String username, String password) {
-        if (isUserExists(username)) return false;
+    // Rewrites users.txt without malformed rows and exact repeats of an earlier row. Rows whose
+    // names differ only by case are separate accounts with their own credentials and are all kept.
+    // With the mmap store it drops the records in users.dat that credential upgrades replaced.
+    @SuppressWarnings("try")
+    public static synchronized void compact() {
+        if (directory == null && !FILE.exists()) return;
+        try (FileChannel lockChannel = openLockChannel(); FileLock ignored = lockChannel.lock()) {
+            if (directory != null) {
+                directory.compact();
+                return;
+            }
+            Set<String> rows = new LinkedHashSet<>();
+            try (BufferedReader reader = new BufferedReader(new FileReader(FILE))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.split(",").length == 2) {
+                        rows.add(line);
+                    }
+                }
+            }
+
+            writeRows(rows);
+
+            // Force a reload from the compacted file
+            loadedModified = -1;
+            loadedLength = -1;
+            refreshIndex();
+            rebuildBloom();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeRows(Collection<String> rows) throws IOException {
+        File tmp = new File(FILE.getParentFile(), "users.txt.tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tmp))) {
+            for (String row : rows) {
+                writer.write(row);
+                writer.newLine();
+            }
+        }
+        Files.move(tmp.toPath(), FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static UsernameBloomFilter ensureBloom() {
+        if (bloom != null) return bloom;
+        // In text mode the filter is trusted only if it was written after the last change to users.txt
+        if (BLOOM_FILE.exists() && (directory != null || BLOOM_FILE.lastModified() >= FILE.lastModified())) {
+            try {
+                bloom = UsernameBloomFilter.load(BLOOM_FILE);
+                return bloom;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        rebuildBloom();
+        return bloom;
+    }
+
+    private static void rebuildBloom() {
+        UsernameBloomFilter filter;
+        if (directory != null) {
+            filter = UsernameBloomFilter.create(directory.size() * 2);
+            directory.forEachName(filter::add);
+        } else {
+            refreshIndex();
+            filter = UsernameBloomFilter.create(users.size() * 2);
+            for (String name : users.keySet()) {
+                filter.add(name);
+            }
+        }
+        bloom = filter;
         try {
-            FILE.getParentFile().mkdirs();
-            BufferedWriter writer = new BufferedWriter(new FileWriter(FILE, true));
-            writer.write(username + "," + password);
-            writer.newLine();
-            writer.close();
-            return true;
+            BLOOM_FILE.getParentFile().mkdirs();
+            filter.save(BLOOM_FILE);
         } catch (IOException e) {
             e.printStackTrace();
         }
-        return false;
     }
-}
\ No newline at end of file
+
+    private static void recordInBloom(String username) {
+        if (bloom == null) {
+            ensureBloom();
+            return;
+        }
+        if (bloom.isSaturated()) {
+            rebuildBloom();
+            return;
+        }
+        try {
+            if (!bloom.addAndPersist(username, BLOOM_FILE)) rebuildBloom();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static UserDirectory openDirectory() {
+        if (!"mmap".equals(System.getProperty("users.store"))) return null;
+        File indexFile = new File(DATA_DIR, "users.idx");
+        File dataFile = new File(DATA_DIR, "users.dat");
+        try {
+            // First run in mmap mode imports the existing text file
+            if (!indexFile.exists()) {
+                BLOOM_FILE.delete();
+                return UserDirectory.importFrom(FILE, indexFile, dataFile);
+            }
+            return UserDirectory.open(indexFile, dataFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private static FileChannel openLockChannel() throws IOException {
+        LOCK_FILE.getParentFile().mkdirs();
+        return FileChannel.open(LOCK_FILE.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    private static void refreshIndex() {
+        long modified = FILE.lastModified();
+        long length = FILE.length();
+        if (modified == loadedModified && length == loadedLength) return;
+
+        users.clear();
+        deadRows = 0;
+        // Only exact repeats and malformed rows count towards compaction, which drops nothing else
+        Set<String> seen = new HashSet<>();
+        // Another instance may have registered names the filter has not seen
+        bloom = null;
+        if (FILE.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(FILE))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split(",");
+                    if (parts.length == 2) {
+                        // Names that differ only by case share one entry, like the old equalsIgnoreCase scan
+                        List<String[]> rows = users.computeIfAbsent(normalize(parts[0]), k -> new ArrayList<>(1));
+                        if (!seen.add(line)) deadRows++;
+                        rows.add(parts);
+                    } else {
+                        deadRows++;
+                    }
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        loadedModified = modified;
+        loadedLength = length;
+
+        if (deadRows >= COMPACT_THRESHOLD) queueCompaction();
+    }
+
+    private static void queueCompaction() {
+        if (!compactionQueued) {
+            compactionQueued = true;
+            compactor.execute(() -> {
+                compact();
+                synchronized (UserManager.class) {
+                    compactionQueued = false;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package auth;
+
+import java.io.*;
+
+// Bloom filter over normalized usernames, persisted to data/users.bloom.
+// A negative answer means the name is definitely free; a positive one still needs a real lookup.
+class UsernameBloomFilter {
+    private static final int MAGIC = 0x55424C4D; // "UBLM"
+    private static final int HEADER_SIZE = 16;
+    private static final int MIN_BITS = 1 << 16;
+
+    private final long[] words;
+    private final int hashes;
+    private int count;
+
+    private UsernameBloomFilter(int numWords, int hashes) {
+        this.words = new long[numWords];
+        this.hashes = hashes;
+    }
+
+    // Sized for about 1% false positives at the expected number of names
+    static UsernameBloomFilter create(int expectedNames) {
+        long bits = Math.max(MIN_BITS, (long) Math.ceil(Math.max(expectedNames, 1) * 9.6));
+        int numWords = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        return new UsernameBloomFilter(numWords, 7);
+    }
+
+    static UsernameBloomFilter load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a username bloom filter: " + file);
+            int hashes = in.readInt();
+            int numWords = in.readInt();
+            int count = in.readInt();
+            UsernameBloomFilter filter = new UsernameBloomFilter(numWords, hashes);
+            for (int i = 0; i < numWords; i++) {
+                filter.words[i] = in.readLong();
+            }
+            filter.count = count;
+            return filter;
+        }
+    }
+
+    void save(File file) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(hashes);
+            out.writeInt(words.length);
+            out.writeInt(count);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            file.delete();
+            tmp.renameTo(file);
+        }
+    }
+
+    boolean mightContain(String username) {
+        long h1 = hash(username, 0x9E3779B9);
+        long h2 = hash(username, 0x7F4A7C15) | 1;
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+
+    void add(String username) {
+        long h1 = hash(username, 0x9E3779B9);
+        long h2 = hash(username, 0x7F4A7C15) | 1;
+        long bits = (long) words.length * 64;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    // Adds a name and writes only the touched words, so registering stays O(hashes) on disk.
+    // Another instance may have added names since this copy was loaded, so each touched word is
+    // read back and ORed with ours rather than overwritten; the caller holds users.lock. Returns
+    // false, writing nothing, if the file was rebuilt with a different size and needs rebuilding.
+    boolean addAndPersist(String username, File file) throws IOException {
+        add(username);
+        if (!file.exists()) {
+            save(file);
+            return true;
+        }
+        long h1 = hash(username, 0x9E3779B9);
+        long h2 = hash(username, 0x7F4A7C15) | 1;
+        long bits = (long) words.length * 64;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < HEADER_SIZE || raf.readInt() != MAGIC || raf.readInt() != hashes
+                    || raf.readInt() != words.length) {
+                return false;
+            }
+            count = Math.max(count, raf.readInt() + 1);
+            raf.seek(12);
+            raf.writeInt(count);
+            for (int i = 0; i < hashes; i++) {
+                int word = (int) (Math.floorMod(h1 + i * h2, bits) >>> 6);
+                long pos = HEADER_SIZE + (long) word * 8;
+                raf.seek(pos);
+                words[word] |= raf.readLong();
+                raf.seek(pos);
+                raf.writeLong(words[word]);
+            }
+        }
+        return true;
+    }
+
+    // True once the filter holds more names than it was sized for
+    boolean isSaturated() {
+        return (long) count * 9.6 > (long) words.length * 64;
+    }
+
+    int count() {
+        return count;
+    }
+
+    private static long hash(String username, long seed) {
+        long h = seed;
+        for (int i = 0; i < username.length(); i++) {
+            h ^= Character.toLowerCase(username.charAt(i));
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,101 @@
+package dashboard;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import core.TextFiles;
+import metrics.FlightEvents;
+import metrics.Metrics;
+
+// Write-behind persistence for the dashboard's text files.
+//
+// Mutations only mark a file dirty. Within the coalescing window every dirty file is
+// snapshotted once on the EDT (where the models live) and rewritten through the IoExecutor,
+// so a burst of edits costs one write per file instead of one per edit.
+class WriteBehindStore {
+    private final Map<String, Supplier<List<String>>> pending = new LinkedHashMap<>();
+    private final Map<String, String> labels = new LinkedHashMap<>();
+    private final Map<String, Supplier<Runnable>> callbacks = new LinkedHashMap<>();
+    private final Timer timer;
+    private final IoExecutor io;
+
+    // Per-label write timings and byte counts, created on first use (only when metrics are enabled)
+    private static final Map<String, Metrics.Timer> writeTimers = new ConcurrentHashMap<>();
+    private static final Map<String, Metrics.Counter> writeBytes = new ConcurrentHashMap<>();
+
+    WriteBehindStore(int windowMs, IoExecutor io) {
+        this.io = io;
+        this.timer = new Timer(windowMs, e -> drain());
+        this.timer.setRepeats(false);
+    }
+
+    // Called on the EDT. The snapshot supplier runs later, also on the EDT, when the window closes.
+    void markDirty(String file, String label, Supplier<List<String>> snapshot) {
+        markDirty(file, label, snapshot, null);
+    }
+
+    // onWritten is asked for its callback at snapshot time (on the EDT) and the callback runs
+    // on the I/O thread once that snapshot is durable; used to advance change-log checkpoints.
+    void markDirty(String file, String label, Supplier<List<String>> snapshot, Supplier<Runnable> onWritten) {
+        pending.put(file, snapshot);
+        labels.put(file, label);
+        callbacks.put(file, onWritten);
+        // Don't restart a running timer: a steady stream of edits must not postpone the write forever
+        if (!timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    // Writes everything pending now. The returned future completes once all queued writes
+    // are on disk, so callers that need durability can wait on it.
+    CompletableFuture<Void> flush() {
+        timer.stop();
+        drain();
+        return io.drain();
+    }
+
+    private void drain() {
+        for (Map.Entry<String, Supplier<List<String>>> entry : pending.entrySet()) {
+            String file = entry.getKey();
+            String label = labels.get(file);
+            List<String> lines = entry.getValue().get();
+            Runnable after = callbacks.get(file) != null ? callbacks.get(file).get() : null;
+            io.submit(file, "saving " + label, () -> {
+                write(file, label, lines);
+                if (after != null) after.run();
+                return null;
+            }, ignored -> { });
+        }
+        pending.clear();
+        labels.clear();
+        callbacks.clear();
+    }
+
+    private static void write(String file, String label, List<String> lines) throws IOException {
+        Metrics.Timer timer = Metrics.ENABLED ? writeTimers.computeIfAbsent(label, l -> Metrics.timer("dashboard.write." + l)) : null;
+        long t = timer != null ? timer.start() : 0;
+        FlightEvents.Save event = new FlightEvents.Save();
+        event.begin();
+        // Snapshots double as change-log checkpoints, so they must be on disk before onWritten runs
+        long bytes = TextFiles.writeAtomically(new File(file), lines);
+        if (timer != null) {
+            writeBytes.computeIfAbsent(label, l -> Metrics.counter("dashboard.write." + l + ".bytes")).add(bytes);
+            timer.stop(t);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = file;
+            event.entity = label;
+            event.records = lines.size();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+}
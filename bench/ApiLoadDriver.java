@@ -0,0 +1,181 @@
+package benchmarks;
+
+import api.ApiServer;
+import auth.UserManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load test for the local HTTP API. Each client logs in as its own user and then
+// issues requests back to back for the given duration: mostly reads (course list, one course's
+// resources, deadlines, assessments), plus --writes of the time a deadline added and the
+// oldest one deleted, so the files keep their size. Reports throughput and per-endpoint
+// latency percentiles.
+//
+// Usage: ApiLoadDriver [--clients 16] [--users 4] [--seconds 10] [--writes 0.1] [--scale 0.01]
+//        [--url http://127.0.0.1:8787 --password pw]
+// Without --url it generates --users profiles (loadtest0, loadtest1, ...) in a scratch
+// directory, registers them with a fast hash and runs the server in this JVM. With --url the
+// users must already exist with the given password.
+public class ApiLoadDriver {
+    private static final Pattern TOKEN = Pattern.compile("\"token\":\"([^\"]+)\"");
+    private static final Pattern NAME = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String base;
+
+    ApiLoadDriver(String base) {
+        this.base = base;
+    }
+
+    // Latencies in nanoseconds per endpoint, one map per client so recording needs no locking
+    static final class Samples {
+        final Map<String, List<Long>> latencies = new TreeMap<>();
+        final Map<String, Integer> errors = new TreeMap<>();
+
+        void record(String endpoint, long nanos, boolean ok) {
+            latencies.computeIfAbsent(endpoint, k -> new ArrayList<>()).add(nanos);
+            if (!ok) errors.merge(endpoint, 1, Integer::sum);
+        }
+
+        void addAll(Samples other) {
+            other.latencies.forEach((k, v) -> latencies.computeIfAbsent(k, x -> new ArrayList<>()).addAll(v));
+            other.errors.forEach((k, v) -> errors.merge(k, v, Integer::sum));
+        }
+    }
+
+    String login(String user, String password) throws IOException, InterruptedException {
+        String basic = Base64.getEncoder().encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(base + "/api/login"))
+                .header("Authorization", "Basic " + basic).POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher m = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !m.find()) throw new IOException("Login failed for " + user + ": " + response.body());
+        return m.group(1);
+    }
+
+    private HttpResponse<String> call(Samples samples, String endpoint, String token, String method, String path, String json)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path)).header("Authorization", "Bearer " + token);
+        if (json != null) {
+            request.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        samples.record(endpoint, System.nanoTime() - start, response.statusCode() < 400);
+        return response;
+    }
+
+    void client(String token, long deadline, double writes, long seed, Samples samples) throws IOException, InterruptedException {
+        Random random = new Random(seed);
+        List<String> courses = new ArrayList<>();
+        Matcher m = NAME.matcher(call(samples, "GET courses", token, "GET", "/api/courses", null).body());
+        while (m.find()) courses.add(m.group(1));
+        int n = 0;
+        while (System.nanoTime() < deadline) {
+            double roll = random.nextDouble();
+            if (roll < writes) {
+                call(samples, "POST deadlines", token, "POST", "/api/deadlines",
+                        "{\"title\":\"Load " + n++ + "\",\"dueDate\":\"2025-06-01\",\"type\":\"Quiz\",\"urgent\":false}");
+                call(samples, "DELETE deadlines", token, "DELETE", "/api/deadlines/0", null);
+            } else if (roll < writes + (1 - writes) * 0.4 && !courses.isEmpty()) {
+                String course = courses.get(random.nextInt(courses.size()));
+                call(samples, "GET course resources", token, "GET",
+                        "/api/courses/" + URLEncoder.encode(course, StandardCharsets.UTF_8).replace("+", "%20") + "/resources", null);
+            } else if (roll < writes + (1 - writes) * 0.7) {
+                call(samples, "GET deadlines", token, "GET", "/api/deadlines", null);
+            } else if (roll < writes + (1 - writes) * 0.9) {
+                call(samples, "GET courses", token, "GET", "/api/courses", null);
+            } else {
+                call(samples, "GET assessments", token, "GET", "/api/assessments", null);
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = DatasetGenerator.options(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "16"));
+        int users = Integer.parseInt(options.getOrDefault("users", "4"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "10"));
+        double writes = Double.parseDouble(options.getOrDefault("writes", "0.1"));
+        String password = options.getOrDefault("password", "load-test");
+
+        ApiServer server = null;
+        File dir = null;
+        String base = options.get("url");
+        if (base == null) {
+            dir = SyntheticData.tempDir("bench-api");
+            // Must be set before UserManager loads
+            System.setProperty("auth.dataDir", new File(dir, "data").getPath());
+            System.setProperty("auth.hash.iterations", "1000");
+            for (int u = 0; u < users; u++) {
+                DatasetGenerator profile = new DatasetGenerator(dir, "loadtest" + u, 42 + u);
+                profile.scale(Double.parseDouble(options.getOrDefault("scale", "0.01")));
+                profile.activities = 0;
+                profile.generate();
+                UserManager.registerUser("loadtest" + u, password);
+            }
+            server = new ApiServer(dir, 0);
+            server.start();
+            base = "http://127.0.0.1:" + server.port();
+        }
+
+        ApiLoadDriver driver = new ApiLoadDriver(base);
+        String[] tokens = new String[users];
+        for (int u = 0; u < users; u++) tokens[u] = driver.login("loadtest" + u, password);
+
+        Samples[] perClient = new Samples[clients];
+        Thread[] threads = new Thread[clients];
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            perClient[c] = new Samples();
+            threads[c] = new Thread(() -> {
+                try {
+                    driver.client(tokens[client % users], deadline, writes, client, perClient[client]);
+                } catch (IOException | InterruptedException e) {
+                    System.err.println("client " + client + ": " + e);
+                }
+            }, "load-client-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) thread.join();
+        long elapsed = System.nanoTime() - start;
+
+        Samples all = new Samples();
+        for (Samples samples : perClient) all.addAll(samples);
+        long total = 0;
+        System.out.printf("%-22s %9s %7s %9s %9s %9s%n", "endpoint", "count", "errors", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, List<Long>> entry : all.latencies.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            total += sorted.length;
+            System.out.printf("%-22s %9d %7d %9.2f %9.2f %9.2f%n", entry.getKey(), sorted.length,
+                    all.errors.getOrDefault(entry.getKey(), 0), percentile(sorted, 50), percentile(sorted, 99),
+                    sorted[sorted.length - 1] / 1e6);
+        }
+        System.out.printf("%nthroughput: %,.0f requests/s with %d clients over %d users%n", total / (elapsed / 1e9), clients, users);
+
+        if (server != null) {
+            server.stop();
+            SyntheticData.deleteTree(dir);
+        }
+    }
+}
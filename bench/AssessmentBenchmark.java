@@ -0,0 +1,139 @@
+package benchmarks;
+
+import core.Assessment;
+import core.AssessmentRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Typed assessments (epoch day, interned course, derived status) against the all-strings
+// layout they replaced, which parsed the date and stored a status string on every refresh.
+// A refresh here is what the assessments page does: the due-soon pass plus a status per row.
+//
+// main() prints retained heap per row for both layouts instead of running JMH:
+//   java -cp <app classes>:bench-classes benchmarks.AssessmentBenchmark [rows]
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssessmentBenchmark {
+    // The previous row layout, kept here as the baseline
+    static final class StringAssessment {
+        final String title;
+        final String course;
+        final String dueDate;
+        String status;
+
+        StringAssessment(String title, String course, String dueDate, String status) {
+            this.title = title;
+            this.course = course;
+            this.dueDate = dueDate;
+            this.status = status;
+        }
+
+        static StringAssessment fromString(String str) {
+            String[] parts = str.split("\\|");
+            return parts.length == 4 ? new StringAssessment(parts[0], parts[1], parts[2], parts[3]) : null;
+        }
+    }
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private List<String> lines;
+    private List<StringAssessment> strings;
+    private List<Assessment> typed;
+
+    @Setup
+    public void setup() {
+        lines = SyntheticData.assessments(rows);
+        strings = parseStrings(lines);
+        typed = parseTyped(lines);
+    }
+
+    static List<StringAssessment> parseStrings(List<String> lines) {
+        List<StringAssessment> list = new ArrayList<>(lines.size());
+        for (String line : lines) list.add(StringAssessment.fromString(line));
+        return list;
+    }
+
+    static List<Assessment> parseTyped(List<String> lines) {
+        List<Assessment> list = new ArrayList<>(lines.size());
+        for (String line : lines) list.add(Assessment.fromString(line));
+        return list;
+    }
+
+    @Benchmark
+    public List<StringAssessment> loadStrings() {
+        return parseStrings(lines);
+    }
+
+    @Benchmark
+    public List<Assessment> loadTyped() {
+        return parseTyped(lines);
+    }
+
+    @Benchmark
+    public int refreshStrings(Blackhole bh) {
+        LocalDate today = SyntheticData.TODAY;
+        LocalDate tomorrow = today.plusDays(1);
+        LocalDate weekEnd = today.plusDays(7);
+        int dueThisWeek = 0;
+        for (StringAssessment a : strings) {
+            try {
+                LocalDate dueDate = LocalDate.parse(a.dueDate);
+                if (dueDate.isBefore(today)) {
+                    a.status = "Completed";
+                } else if (dueDate.isEqual(today)) {
+                    a.status = "In Progress";
+                    bh.consume(a);
+                } else {
+                    a.status = "Pending";
+                    if (dueDate.equals(tomorrow)) bh.consume(a);
+                }
+                if (!dueDate.isAfter(weekEnd) && !dueDate.isBefore(today)) dueThisWeek++;
+            } catch (DateTimeParseException ignored) {
+            }
+            bh.consume(a.status);
+        }
+        return dueThisWeek;
+    }
+
+    @Benchmark
+    public int refreshTyped(Blackhole bh) {
+        int dueThisWeek = AssessmentRepository.scanDue(typed, SyntheticData.TODAY, bh::consume, bh::consume);
+        long today = SyntheticData.TODAY.toEpochDay();
+        for (Assessment a : typed) bh.consume(a.statusLabel(today));
+        return dueThisWeek;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 4; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<String> lines = SyntheticData.assessments(rows);
+
+        long before = usedHeap();
+        List<StringAssessment> strings = parseStrings(lines);
+        long stringBytes = usedHeap() - before;
+        System.out.printf("strings: %,d bytes/row%n", stringBytes / rows);
+        strings.clear();
+
+        before = usedHeap();
+        List<Assessment> typed = parseTyped(lines);
+        long typedBytes = usedHeap() - before;
+        // typed.size() keeps the list reachable until it has been measured
+        System.out.printf("typed:   %,d bytes/row (%d rows)%n", typedBytes / rows, typed.size());
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import core.*;
+
+import java.time.LocalDate;
+import java.util.*;
+
+// Checks AssessmentRepository.query() against a plain scan of every row: random course, status
+// and date filters over a repository with undated rows and removals, comparing the rows returned
+// and, for sorted queries, their order. Exits with status 1 on any mismatch.
+//
+// Usage: AssessmentQueryCheck [rows] [queries]
+// Like LoadHarness this needs only the app classes on the classpath.
+public class AssessmentQueryCheck {
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        Random random = SyntheticData.random();
+        LocalDate today = SyntheticData.TODAY;
+
+        AssessmentRepository repo = new AssessmentRepository(null);
+        for (String line : SyntheticData.assessments(rows)) {
+            repo.add(Assessment.fromString(line));
+        }
+        // Rows without a valid date never match a date or status filter
+        for (int i = 0; i < rows / 200; i++) {
+            repo.add(Assessment.fromString("Undated " + i + "|Course " + random.nextInt(50) + "|someday|Pending"));
+        }
+        for (int i = 0; i < rows / 50; i++) {
+            repo.remove(random.nextInt(repo.size()));
+        }
+        List<Assessment> all = new ArrayList<>(repo.size());
+        for (Assessment a : repo) all.add(a);
+
+        Assessment.Status[] statuses = {null, Assessment.Status.PENDING, Assessment.Status.IN_PROGRESS, Assessment.Status.COMPLETED};
+        AssessmentQuery.Sort[] sorts = AssessmentQuery.Sort.values();
+        int mismatches = 0;
+        for (int q = 0; q < queries; q++) {
+            // A couple of course names that do not exist, too
+            String course = random.nextInt(3) == 0 ? null : "Course " + random.nextInt(52);
+            Assessment.Status status = statuses[random.nextInt(statuses.length)];
+            LocalDate from = random.nextBoolean() ? null : today.plusDays(random.nextInt(100) - 50);
+            LocalDate to = random.nextBoolean() ? null : today.plusDays(random.nextInt(100) - 40);
+            AssessmentQuery query = new AssessmentQuery(course, status, from, to, sorts[random.nextInt(sorts.length)], random.nextBoolean());
+
+            List<Assessment> expected = new ArrayList<>();
+            for (Assessment a : all) {
+                if (matches(a, query, today)) expected.add(a);
+            }
+            List<Assessment> actual = repo.query(query, today);
+
+            Set<Assessment> expectedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            expectedSet.addAll(expected);
+            Set<Assessment> actualSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            actualSet.addAll(actual);
+            boolean ok = actual.size() == expected.size() && actualSet.equals(expectedSet);
+            if (ok && query.sort != AssessmentQuery.Sort.NONE) {
+                // Rows that compare equal may come back in any order, so only the keys are compared
+                Comparator<Assessment> order = comparator(query, today);
+                for (int i = 1; i < actual.size() && ok; i++) {
+                    ok = order.compare(actual.get(i - 1), actual.get(i)) <= 0;
+                }
+            }
+            if (!ok) {
+                mismatches++;
+                System.out.printf("mismatch: course=%s status=%s from=%s to=%s sort=%s%s, expected %d rows, got %d%n",
+                        course, status, from, to, query.sort, query.descending ? " desc" : "", expected.size(), actual.size());
+            }
+        }
+        System.out.printf("%d queries over %,d rows, %d mismatches%n", queries, all.size(), mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+
+    private static boolean matches(Assessment a, AssessmentQuery q, LocalDate today) {
+        if (q.course != null && !a.course.equals(q.course)) return false;
+        if (q.status != null && a.status(today.toEpochDay()) != q.status) return false;
+        if (q.from != null && (a.epochDay == Assessment.NO_DATE || a.epochDay < q.from.toEpochDay())) return false;
+        return q.to == null || (a.epochDay != Assessment.NO_DATE && a.epochDay <= q.to.toEpochDay());
+    }
+
+    // Written out again rather than taken from AssessmentQuery, so the check does not share its bugs
+    private static Comparator<Assessment> comparator(AssessmentQuery q, LocalDate today) {
+        Comparator<Assessment> byDue = Comparator.comparingInt(a -> a.epochDay);
+        Comparator<Assessment> order;
+        switch (q.sort) {
+            case DUE: order = byDue; break;
+            case COURSE: order = Comparator.comparing((Assessment a) -> a.course.toLowerCase(Locale.ROOT))
+                    .thenComparing(a -> a.course).thenComparing(byDue); break;
+            default: order = Comparator.comparing((Assessment a) -> a.status(today.toEpochDay()),
+                    Comparator.nullsLast(Comparator.naturalOrder())).thenComparing(byDue); break;
+        }
+        return q.descending ? order.reversed() : order;
+    }
+}
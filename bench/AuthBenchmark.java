@@ -0,0 +1,74 @@
+package benchmarks;
+
+import auth.UserManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Login against a users file of the given size. The work factor is pinned low so the lookup
+// and index reload are visible next to PBKDF2; every row shares one hash, which keeps the
+// 1M-user file (about 100 MB) quick to generate. Each size runs in its own fork because
+// UserManager's index and data directory are static.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dauth.hash.iterations=1000", "-Xmx2g"})
+public class AuthBenchmark {
+    private static final String PASSWORD = "correct horse";
+
+    @Param({"1000", "100000", "1000000"})
+    int users;
+
+    private File dir;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = SyntheticData.tempDir("bench-auth");
+        // Must be set before UserManager is first touched
+        System.setProperty("auth.dataDir", dir.getPath());
+        UserManager.registerUser("user0", PASSWORD);
+
+        File usersFile = new File(dir, "users.txt");
+        List<String> rows = Files.readAllLines(usersFile.toPath());
+        String credential = rows.get(0).substring(rows.get(0).indexOf(',') + 1);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(usersFile, true))) {
+            for (int i = 1; i < users; i++) {
+                writer.write("user" + i + "," + credential);
+                writer.newLine();
+            }
+        }
+        // Builds the index outside the measurement
+        UserManager.isUserExists("user0");
+        random = SyntheticData.random();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticData.deleteTree(dir);
+    }
+
+    @Benchmark
+    public boolean validateUser() {
+        return UserManager.validateUser("user" + random.nextInt(users), PASSWORD);
+    }
+
+    @Benchmark
+    public boolean validateUserWrongPassword() {
+        return UserManager.validateUser("user" + random.nextInt(users), "wrong");
+    }
+
+    @Benchmark
+    public boolean validateUnknownUser() {
+        return UserManager.validateUser("nobody" + random.nextInt(users), PASSWORD);
+    }
+}
@@ -0,0 +1,36 @@
+package benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Runs the benchmarks and writes JMH's JSON results to bench-results/jmh-<timestamp>.json,
+// which jmh.morethan.io or a diff of two files can compare across runs.
+//
+// Compile these sources together with the app classes, with jmh-core and
+// jmh-generator-annprocess on the classpath (the annotation processor generates the harness):
+//   javac -cp jmh-core.jar:jmh-generator-annprocess.jar:<app classes> -d bench-classes bench/*.java
+//   java -cp jmh-core.jar:<deps>:<app classes>:bench-classes benchmarks.BenchmarkRunner [regex] [output.json]
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "benchmarks\\..*Benchmark";
+        String output = args.length > 1 ? args[1]
+                : "bench-results/jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+        File parent = new File(output).getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output)
+                .build();
+        new Runner(options).run();
+        System.out.println("Results written to " + output);
+    }
+}
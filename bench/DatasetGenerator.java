@@ -0,0 +1,216 @@
+package benchmarks;
+
+import core.StudyStore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+// Writes a synthetic heavy-user profile in the dashboard's pipe-delimited formats:
+//   courses_<user>.txt, resources_<user>.txt, deadlines_<user>.txt, activities_<user>.txt,
+//   data/assessments_<user>.txt and data/events_<user>.txt
+// The same seed and sizes always produce the same files. Rows are streamed to disk, so the
+// largest profiles need no more heap than the small ones.
+//
+// Usage: DatasetGenerator [--dir .] [--user heavy] [--seed 42] [--scale 1.0]
+//        [--courses 2000] [--resources 200000] [--deadlines 50000] [--activities 1000000]
+//        [--assessments 20000] [--years 10] [--eventsPerDay 3]
+// The dashboard imports activities_<user>.txt into its journal on first open and keeps only
+// the newest entries allowed by -Ddashboard.activities.segments.
+public class DatasetGenerator {
+    private static final String[] SUBJECTS = {"Calculus", "Statistics", "Data Structures", "Algorithms", "Physics",
+            "Chemistry", "Computer Organization", "Operating Systems", "Networks", "Databases", "Linear Algebra",
+            "Discrete Math", "Software Engineering", "Machine Learning", "Economics", "Philosophy"};
+    private static final String[] RESOURCE_TYPES = {"Link", "PDF", "Slides", "Pictures"};
+    private static final String[] RESOURCE_NAMES = {"Lecture Notes", "Textbook", "Problem Set", "Past Paper",
+            "Video Playlist", "Cheat Sheet", "Lab Manual", "Reading"};
+    private static final String[] DEADLINE_TYPES = {"📝 Assignment", "📊 Quiz", "💻 Project", "📋 Exam"};
+    private static final String[] ASSESSMENT_TYPES = {"Quiz", "Assignment", "Project", "Exam", "Midterm", "Final"};
+    private static final String[] EVENT_TYPES = {"Quiz", "Exam", "Assignment", "Project"};
+    private static final String[] ACTIVITY_VERBS = {"Added new course: ", "Updated course: ", "Deleted course: ",
+            "Added new resource: ", "Deleted resource: ", "Studied: "};
+    private static final String[] ICONS = {"+", "✓", "✏", "📚", "🎯", "💡"};
+    private static final String[] COLORS = {"76,175,80", "156,39,176", "33,150,243", "255,152,0", "244,67,54", "96,125,139"};
+
+    final File dir;
+    final String user;
+    final long seed;
+    int courses = 2000;
+    int resources = 200_000;
+    int deadlines = 50_000;
+    int activities = 1_000_000;
+    int assessments = 20_000;
+    int years = 10;
+    int eventsPerDay = 3;
+    // Dates are spread around this day, so past, current and future rows all occur
+    LocalDate today = LocalDate.now();
+
+    DatasetGenerator(File dir, String user, long seed) {
+        this.dir = dir;
+        this.user = user;
+        this.seed = seed;
+    }
+
+    void scale(double factor) {
+        courses = Math.max(1, (int) (courses * factor));
+        resources = (int) (resources * factor);
+        deadlines = (int) (deadlines * factor);
+        activities = (int) (activities * factor);
+        assessments = (int) (assessments * factor);
+        years = Math.max(1, (int) Math.ceil(years * factor));
+    }
+
+    // File names and locations are the ones StudyStore reads
+    private StudyStore layout() {
+        return new StudyStore(dir, user);
+    }
+
+    File coursesFile() {
+        return layout().courses().coursesFile();
+    }
+
+    File resourcesFile() {
+        return layout().courses().resourcesFile();
+    }
+
+    File deadlinesFile() {
+        return layout().deadlines().file();
+    }
+
+    File activitiesFile() {
+        return layout().legacyActivitiesFile();
+    }
+
+    File assessmentsFile() {
+        return layout().assessments().file();
+    }
+
+    File eventsFile() {
+        return layout().events().file();
+    }
+
+    static String courseName(int i) {
+        return SUBJECTS[i % SUBJECTS.length] + " " + (100 + i / SUBJECTS.length);
+    }
+
+    // Each file gets its own stream derived from the seed, so changing one size leaves the others' rows alone
+    private Random random(int stream) {
+        return new Random(seed * 31 + stream);
+    }
+
+    private String date(Random random, int spreadDays) {
+        return today.plusDays(random.nextInt(2 * spreadDays + 1) - spreadDays).toString();
+    }
+
+    void generate() throws IOException {
+        try (BufferedWriter w = open(coursesFile())) {
+            for (int i = 0; i < courses; i++) {
+                line(w, courseName(i));
+            }
+        }
+
+        Random random = random(1);
+        try (BufferedWriter w = open(resourcesFile())) {
+            for (int i = 0; i < resources; i++) {
+                String type = RESOURCE_TYPES[random.nextInt(RESOURCE_TYPES.length)];
+                line(w, courseName(random.nextInt(courses)) + "|" + RESOURCE_NAMES[random.nextInt(RESOURCE_NAMES.length)] + " " + i
+                        + "|" + type + "|https://example.org/" + type.toLowerCase(Locale.ROOT) + "/" + Long.toHexString(random.nextLong()));
+            }
+        }
+
+        random = random(2);
+        try (BufferedWriter w = open(deadlinesFile())) {
+            for (int i = 0; i < deadlines; i++) {
+                line(w, courseName(random.nextInt(courses)) + " " + ASSESSMENT_TYPES[random.nextInt(ASSESSMENT_TYPES.length)] + " " + i
+                        + "|" + date(random, 365) + "|" + DEADLINE_TYPES[random.nextInt(DEADLINE_TYPES.length)] + "|" + (random.nextInt(5) == 0));
+            }
+        }
+
+        // Oldest first, as the dashboard appended them
+        random = random(3);
+        try (BufferedWriter w = open(activitiesFile())) {
+            for (int i = 0; i < activities; i++) {
+                int kind = random.nextInt(ACTIVITY_VERBS.length);
+                line(w, ACTIVITY_VERBS[kind] + courseName(random.nextInt(courses)) + "|Just now|" + ICONS[kind] + "|" + COLORS[kind]);
+            }
+        }
+
+        // A few legacy dd-MM-yyyy dates, like the ones in the shipped file, exercise the parse-error path
+        random = random(4);
+        try (BufferedWriter w = open(assessmentsFile())) {
+            for (int i = 0; i < assessments; i++) {
+                String due = date(random, 180);
+                if (random.nextInt(200) == 0) {
+                    LocalDate d = LocalDate.parse(due);
+                    due = String.format("%02d-%02d-%04d", d.getDayOfMonth(), d.getMonthValue(), d.getYear());
+                }
+                line(w, ASSESSMENT_TYPES[random.nextInt(ASSESSMENT_TYPES.length)] + " " + i + "|"
+                        + courseName(random.nextInt(courses)) + "|" + due + "|Pending");
+            }
+        }
+
+        // Up to eventsPerDay events on every day of the last `years` years
+        random = random(5);
+        try (BufferedWriter w = open(eventsFile())) {
+            LocalDate end = today.plusDays(1);
+            for (LocalDate day = today.minusYears(years); day.isBefore(end); day = day.plusDays(1)) {
+                int count = random.nextInt(eventsPerDay + 1);
+                for (int i = 0; i < count; i++) {
+                    line(w, day + "|" + courseName(random.nextInt(courses)) + " session|" + EVENT_TYPES[random.nextInt(EVENT_TYPES.length)]);
+                }
+            }
+        }
+    }
+
+    private static BufferedWriter open(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static void line(BufferedWriter w, String line) throws IOException {
+        w.write(line);
+        w.newLine();
+    }
+
+    // --name value pairs; anything else is an error
+    static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    static DatasetGenerator fromOptions(Map<String, String> options) {
+        DatasetGenerator generator = new DatasetGenerator(new File(options.getOrDefault("dir", ".")),
+                options.getOrDefault("user", "heavy"), Long.parseLong(options.getOrDefault("seed", "42")));
+        if (options.containsKey("scale")) generator.scale(Double.parseDouble(options.get("scale")));
+        if (options.containsKey("courses")) generator.courses = Integer.parseInt(options.get("courses"));
+        if (options.containsKey("resources")) generator.resources = Integer.parseInt(options.get("resources"));
+        if (options.containsKey("deadlines")) generator.deadlines = Integer.parseInt(options.get("deadlines"));
+        if (options.containsKey("activities")) generator.activities = Integer.parseInt(options.get("activities"));
+        if (options.containsKey("assessments")) generator.assessments = Integer.parseInt(options.get("assessments"));
+        if (options.containsKey("years")) generator.years = Integer.parseInt(options.get("years"));
+        if (options.containsKey("eventsPerDay")) generator.eventsPerDay = Integer.parseInt(options.get("eventsPerDay"));
+        if (options.containsKey("today")) generator.today = LocalDate.parse(options.get("today"));
+        return generator;
+    }
+
+    public static void main(String[] args) throws IOException {
+        DatasetGenerator generator = fromOptions(options(args));
+        long start = System.nanoTime();
+        generator.generate();
+        long bytes = 0;
+        for (File file : new File[]{generator.coursesFile(), generator.resourcesFile(), generator.deadlinesFile(),
+                generator.activitiesFile(), generator.assessmentsFile(), generator.eventsFile()}) {
+            System.out.printf("%-40s %,12d bytes%n", file.getPath(), file.length());
+            bytes += file.length();
+        }
+        System.out.printf("Generated %,d bytes for %s in %d ms%n", bytes, generator.user, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import core.Assessment;
+import core.AssessmentRepository;
+import core.Deadline;
+import core.DeadlineRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Date handling behind the "due this week" card and the assessment status refresh, both of
+// which run on the EDT whenever the dashboard or assessments page is shown
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateBenchmark {
+    @Param({"100", "10000", "100000"})
+    int rows;
+
+    private List<Deadline> deadlines;
+    private DeadlineRepository repository;
+    private List<Assessment> assessments;
+
+    @Setup
+    public void setup() {
+        deadlines = new ArrayList<>(rows);
+        for (String line : SyntheticData.deadlines(rows)) {
+            deadlines.add(Deadline.fromString(line));
+        }
+        repository = new DeadlineRepository(null);
+        repository.merge(deadlines);
+        assessments = new ArrayList<>(rows);
+        for (String line : SyntheticData.assessments(rows)) {
+            assessments.add(Assessment.fromString(line));
+        }
+    }
+
+    @Benchmark
+    public int calculateWeeklyDeadlines() {
+        return DeadlineRepository.countDueWithin(deadlines, SyntheticData.TODAY, 7);
+    }
+
+    // Same count from the due-day index, which only visits the 8 days in range
+    @Benchmark
+    public int calculateWeeklyDeadlinesIndexed() {
+        return repository.countDueWithin(SyntheticData.TODAY, 7);
+    }
+
+    @Benchmark
+    public List<Deadline> soonestFiveDeadlines() {
+        return repository.soonest(SyntheticData.TODAY, 5);
+    }
+
+    @Benchmark
+    public int refreshAssessmentStatuses(Blackhole bh) {
+        return AssessmentRepository.scanDue(assessments, SyntheticData.TODAY, bh::consume, bh::consume);
+    }
+}
@@ -0,0 +1,205 @@
+package benchmarks;
+
+import core.*;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.ref.Reference;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+// Headless load test over a generated profile (see DatasetGenerator). Each cycle does what a
+// dashboard session does to the files: load every section, apply a batch of edits, refresh the
+// date-derived stats and save every section back. Reports per-phase latency percentiles,
+// throughput and heap usage.
+//
+// Usage: LoadHarness [--dir .] [--user heavy] [--cycles 10] [--warmup 2] [--mutations 100]
+//        [generator options]
+// If the profile does not exist yet it is generated first with the generator options.
+// The files are rewritten in place; edits add and remove the same number of rows, so the
+// profile keeps its size from cycle to cycle. Unlike the JMH benchmarks this needs only the
+// app classes on the classpath.
+public class LoadHarness {
+    private final DatasetGenerator profile;
+    private final int mutations;
+    private final Random random;
+    private final Map<String, List<Long>> timings = new LinkedHashMap<>();
+    private long rowsLoaded;
+
+    LoadHarness(DatasetGenerator profile, int mutations) {
+        this.profile = profile;
+        this.mutations = mutations;
+        this.random = new Random(profile.seed);
+    }
+
+    private interface Phase<T> {
+        T run() throws IOException;
+    }
+
+    private <T> T time(String phase, Phase<T> body) throws IOException {
+        long start = System.nanoTime();
+        T result = body.run();
+        timings.computeIfAbsent(phase, k -> new ArrayList<>()).add(System.nanoTime() - start);
+        return result;
+    }
+
+    void cycle() throws IOException {
+        long cycleStart = System.nanoTime();
+
+        StudyStore store = new StudyStore(profile.dir, profile.user);
+        time("load courses+resources", () -> {
+            store.courses().load();
+            return null;
+        });
+        time("load deadlines", () -> {
+            store.deadlines().load();
+            return null;
+        });
+        int activities = time("load activities", store::readLegacyActivities).size();
+        time("load assessments", () -> {
+            store.assessments().load();
+            return null;
+        });
+        time("load events", () -> {
+            store.events().load();
+            return null;
+        });
+        rowsLoaded += store.courses().courseCount() + store.courses().resourceCount() + store.deadlines().size()
+                + activities + store.assessments().size() + store.events().size();
+
+        List<String> newActivities = time("mutate", () -> mutate(store));
+
+        LocalDate today = LocalDate.now();
+        time("refresh weekly deadlines", () -> store.deadlines().countDueWithin(today, 7));
+        time("refresh assessment statuses", () -> store.assessments().scanDue(today, a -> { }, a -> { }));
+
+        time("save resources", () -> TextFiles.writeAtomically(store.courses().resourcesFile(), store.courses().resourceLines()));
+        time("save deadlines", store.deadlines()::save);
+        time("save assessments", store.assessments()::save);
+        time("save events", store.events()::save);
+        // Activities are append-only in the dashboard, so only the new rows are written
+        time("append activities", () -> {
+            try (BufferedWriter w = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(store.legacyActivitiesFile(), true), StandardCharsets.UTF_8))) {
+                for (String line : newActivities) {
+                    w.write(line);
+                    w.newLine();
+                }
+            }
+            return null;
+        });
+
+        timings.computeIfAbsent("cycle", k -> new ArrayList<>()).add(System.nanoTime() - cycleStart);
+    }
+
+    // Adds `mutations` rows to each section and removes as many of the oldest ones
+    private List<String> mutate(StudyStore store) {
+        CourseRepository courses = store.courses();
+        DeadlineRepository deadlines = store.deadlines();
+        AssessmentRepository assessments = store.assessments();
+        EventRepository events = store.events();
+        List<String> newActivities = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < mutations; i++) {
+            String course = courses.courses().get(random.nextInt(courses.courseCount()));
+            courses.addResource(course, new Resource("Harness resource " + random.nextInt(1_000_000), "Link", "https://example.org/h/" + i));
+            List<Resource> resources = courses.resources(course);
+            if (resources.size() > 1) courses.removeResource(course, resources.get(0));
+
+            String due = today.plusDays(random.nextInt(60) - 30).toString();
+            deadlines.add(new Deadline("Harness deadline " + i, due, "📝 Assignment", random.nextBoolean()));
+            if (deadlines.size() > 1) deadlines.remove(0);
+
+            assessments.add(new Assessment("Quiz " + i, course, due));
+            if (assessments.size() > 1) assessments.remove(0);
+
+            LocalDate day = LocalDate.parse(due);
+            events.add(new CalendarEvent(day, course + " session", "Quiz"));
+            List<CalendarEvent> dayEvents = events.on(day);
+            if (dayEvents.size() > 1) {
+                CalendarEvent oldest = dayEvents.get(0);
+                events.removeIf(day, ev -> ev == oldest);
+            }
+
+            newActivities.add("Added new resource: Harness resource|Just now|+|76,175,80");
+        }
+        return newActivities;
+    }
+
+    void report(int cycles, long elapsedNanos) {
+        System.out.printf("%-30s %8s %10s %10s %10s%n", "phase", "count", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, List<Long>> entry : timings.entrySet()) {
+            long[] sorted = entry.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+            System.out.printf("%-30s %8d %10.2f %10.2f %10.2f%n", entry.getKey(), sorted.length,
+                    percentile(sorted, 50), percentile(sorted, 99), sorted[sorted.length - 1] / 1e6);
+        }
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nthroughput: %.2f cycles/s, %,.0f rows loaded/s, %,.0f edits/s%n",
+                cycles / seconds, rowsLoaded / seconds, cycles * mutations * 4L / seconds);
+    }
+
+    private static double percentile(long[] sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static long heapPeak() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static long heapUsedAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Heap held by one fully loaded profile, as the dashboard keeps it between edits
+    private static long retainedBytes(DatasetGenerator profile) {
+        long before = heapUsedAfterGc();
+        StudyStore loaded = new StudyStore(profile.dir, profile.user);
+        loaded.courses().load();
+        loaded.deadlines().load();
+        loaded.assessments().load();
+        loaded.events().load();
+        long after = heapUsedAfterGc();
+        // Keeps the sections reachable until the second measurement
+        Reference.reachabilityFence(loaded);
+        return after - before;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = DatasetGenerator.options(args);
+        int cycles = Integer.parseInt(options.getOrDefault("cycles", "10"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "2"));
+        int mutations = Integer.parseInt(options.getOrDefault("mutations", "100"));
+        DatasetGenerator profile = DatasetGenerator.fromOptions(options);
+        if (!profile.coursesFile().exists()) {
+            System.out.println("Generating profile " + profile.user + " in " + profile.dir);
+            profile.generate();
+        }
+
+        LoadHarness warmupRun = new LoadHarness(profile, mutations);
+        for (int i = 0; i < warmup; i++) {
+            warmupRun.cycle();
+        }
+
+        long baseline = heapUsedAfterGc();
+        LoadHarness harness = new LoadHarness(profile, mutations);
+        long start = System.nanoTime();
+        for (int i = 0; i < cycles; i++) {
+            harness.cycle();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        harness.report(cycles, elapsed);
+        System.out.printf("heap: %,d KB live before the run, %,d KB peak, %,d KB max%n",
+                baseline / 1024, heapPeak() / 1024, Runtime.getRuntime().maxMemory() / 1024);
+        System.out.printf("heap retained by a loaded profile (without activities): %,d KB%n", retainedBytes(profile) / 1024);
+    }
+}
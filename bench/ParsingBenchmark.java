@@ -0,0 +1,43 @@
+package benchmarks;
+
+import core.Activity;
+import core.Deadline;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Line parsing as done for every row of the deadlines and legacy activities files
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParsingBenchmark {
+    @Param({"1000", "100000"})
+    int rows;
+
+    private String[] deadlineLines;
+    private String[] activityLines;
+
+    @Setup
+    public void setup() {
+        deadlineLines = SyntheticData.deadlines(rows).toArray(new String[0]);
+        activityLines = SyntheticData.activities(rows).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public void deadlineFromString(Blackhole bh) {
+        for (String line : deadlineLines) {
+            bh.consume(Deadline.fromString(line));
+        }
+    }
+
+    @Benchmark
+    public void activityFromString(Blackhole bh) {
+        for (String line : activityLines) {
+            bh.consume(Activity.fromString(line));
+        }
+    }
+}
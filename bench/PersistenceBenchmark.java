@@ -0,0 +1,77 @@
+package benchmarks;
+
+import core.CalendarEvent;
+import core.CourseRepository;
+import core.EventRepository;
+import core.TextFiles;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Full file round trips for courses/resources and calendar events. Saves include the fsync and
+// atomic rename the dashboard does, so results depend on the disk as well as the code.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistenceBenchmark {
+    @Param({"100", "10000", "100000"})
+    int rows;
+
+    private File dir;
+    private File coursesFile;
+    private File resourcesFile;
+    private File eventsFile;
+    private File savedResources;
+    private File savedEvents;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = SyntheticData.tempDir("bench-persistence");
+        coursesFile = new File(dir, "courses.txt");
+        resourcesFile = new File(dir, "resources.txt");
+        eventsFile = new File(dir, "events.txt");
+        savedResources = new File(dir, "resources-saved.txt");
+        savedEvents = new File(dir, "events-saved.txt");
+        int courses = Math.max(1, rows / 100);
+        Files.write(coursesFile.toPath(), SyntheticData.courses(courses));
+        Files.write(resourcesFile.toPath(), SyntheticData.resources(rows, courses));
+        Files.write(eventsFile.toPath(), SyntheticData.events(rows));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SyntheticData.deleteTree(dir);
+    }
+
+    @Benchmark
+    public CourseRepository.CourseData loadCoursesAndResources() {
+        return new CourseRepository(coursesFile, resourcesFile).read();
+    }
+
+    // What saveResources writes after a load: snapshot lines, then the atomic write
+    @Benchmark
+    public long saveResourcesRoundTrip() throws IOException {
+        CourseRepository.CourseData data = new CourseRepository(coursesFile, resourcesFile).read();
+        return TextFiles.writeAtomically(savedResources, CourseRepository.resourceLines(data));
+    }
+
+    @Benchmark
+    public Map<LocalDate, List<CalendarEvent>> loadEvents() {
+        return new EventRepository(eventsFile).read();
+    }
+
+    @Benchmark
+    public long saveEventsRoundTrip() throws IOException {
+        Map<LocalDate, List<CalendarEvent>> events = new EventRepository(eventsFile).read();
+        return TextFiles.writeAtomically(savedEvents, EventRepository.lines(events));
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import core.TimingWheel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// The reminder engine's timing wheel with many pending timeouts spread over three months:
+// the cost of moving one (an edit), and of the once-a-second tick the dashboard runs.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderBenchmark {
+    private static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(90);
+
+    @Param({"10000", "500000"})
+    int pending;
+
+    private TimingWheel<Integer> wheel;
+    private List<TimingWheel.Timeout<Integer>> timeouts;
+    private Random random;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        random = SyntheticData.random();
+        wheel = new TimingWheel<>(1000, 0);
+        timeouts = new ArrayList<>(pending);
+        for (int i = 0; i < pending; i++) {
+            timeouts.add(wheel.schedule(i, 1000 + (long) (random.nextDouble() * SPAN_MILLIS)));
+        }
+        now = 0;
+    }
+
+    @Benchmark
+    public void reschedule() {
+        TimingWheel.Timeout<Integer> timeout = timeouts.get(random.nextInt(pending));
+        wheel.reschedule(timeout, now + 1000 + (long) (random.nextDouble() * SPAN_MILLIS));
+    }
+
+    // Fired timeouts go back in at the far end, so the number pending stays put
+    @Benchmark
+    public int tickOneSecond() {
+        now += 1000;
+        return wheel.advanceTo(now, t -> wheel.reschedule(t, now + SPAN_MILLIS));
+    }
+}
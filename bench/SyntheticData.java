@@ -0,0 +1,98 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Seeded row generators in the dashboard's file formats, so every run sees the same data
+final class SyntheticData {
+    static final LocalDate TODAY = LocalDate.of(2025, 3, 15);
+    private static final String[] TYPES = {"Exam", "Assignment", "Quiz", "Project"};
+    private static final String[] RESOURCE_TYPES = {"PDF", "Video", "Link", "Notes"};
+
+    private SyntheticData() {
+    }
+
+    static Random random() {
+        return new Random(42);
+    }
+
+    // Spread over two months either side of TODAY so every status and the due-this-week window are hit
+    static String date(Random random) {
+        return TODAY.plusDays(random.nextInt(120) - 60).toString();
+    }
+
+    static List<String> deadlines(int count) {
+        Random random = random();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("Deadline " + i + "|" + date(random) + "|" + TYPES[random.nextInt(TYPES.length)] + "|" + random.nextBoolean());
+        }
+        return lines;
+    }
+
+    static List<String> activities(int count) {
+        Random random = random();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("Studied chapter " + i + "|" + random.nextInt(60) + " minutes ago|+|76,175,80");
+        }
+        return lines;
+    }
+
+    static List<String> courses(int count) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("Course " + i);
+        }
+        return lines;
+    }
+
+    static List<String> resources(int count, int courses) {
+        Random random = random();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("Course " + random.nextInt(courses) + "|Resource " + i + "|"
+                    + RESOURCE_TYPES[random.nextInt(RESOURCE_TYPES.length)] + "|https://example.org/r/" + i);
+        }
+        return lines;
+    }
+
+    // title|course|dueDate|status
+    static List<String> assessments(int count) {
+        Random random = random();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add("Assessment " + i + "|Course " + random.nextInt(50) + "|" + date(random) + "|Pending");
+        }
+        return lines;
+    }
+
+    // date|title|type
+    static List<String> events(int count) {
+        Random random = random();
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(date(random) + "|Event " + i + "|" + TYPES[random.nextInt(TYPES.length)]);
+        }
+        return lines;
+    }
+
+    static File tempDir(String prefix) throws IOException {
+        File dir = Files.createTempDirectory(prefix).toFile();
+        dir.deleteOnExit();
+        return dir;
+    }
+
+    static void deleteTree(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) deleteTree(child);
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmarks;
+
+import core.TimingWheel;
+
+import java.util.*;
+
+// Checks TimingWheel against a plain map of due ticks: random schedule, reschedule, cancel and
+// advance steps, with distances from a few seconds up to years so timeouts cascade through every
+// level. After each advance every timeout due by then must have fired, none early and none
+// twice, and size() must match. Exits with status 1 on any mismatch.
+//
+// Usage: TimingWheelCheck [steps]
+// Like LoadHarness this needs only the app classes on the classpath.
+public class TimingWheelCheck {
+    private static final long TICK = 1000;
+    private static final long ORIGIN = 1_000_000;
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Random random = SyntheticData.random();
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, ORIGIN);
+        Map<Integer, TimingWheel.Timeout<Integer>> live = new HashMap<>();
+        // The tick each live timeout should fire on
+        Map<Integer, Long> dueTick = new HashMap<>();
+        List<Integer> ids = new ArrayList<>();
+        long now = ORIGIN;
+        long currentTick = 0;
+        int nextId = 0;
+        int mismatches = 0;
+        int fired = 0;
+
+        for (int step = 0; step < steps; step++) {
+            int op = random.nextInt(10);
+            // Mostly within a few minutes, sometimes weeks to years ahead, sometimes already past
+            long at = now - 5000 + (random.nextInt(4) == 0 ? (long) (random.nextDouble() * 4e10) : random.nextInt(200_000));
+            if (op < 4) {
+                int id = nextId++;
+                live.put(id, wheel.schedule(id, at));
+                dueTick.put(id, expectedTick(at, currentTick));
+                ids.add(id);
+            } else if (op < 6 && !ids.isEmpty()) {
+                int id = ids.get(random.nextInt(ids.size()));
+                wheel.reschedule(live.get(id), at);
+                dueTick.put(id, expectedTick(at, currentTick));
+            } else if (op < 7 && !ids.isEmpty()) {
+                int id = ids.remove(random.nextInt(ids.size()));
+                if (!wheel.cancel(live.remove(id))) mismatches++;
+                dueTick.remove(id);
+            } else {
+                now += random.nextInt(50) == 0 ? (long) (random.nextDouble() * 5e8) : random.nextInt(30_000);
+                long target = Math.floorDiv(now - ORIGIN, TICK);
+                int[] bad = {0};
+                fired += wheel.advanceTo(now, timeout -> {
+                    Long expected = dueTick.remove(timeout.payload);
+                    // Fired twice, or after a cancel, or before its tick
+                    if (expected == null || expected > target) bad[0]++;
+                    live.remove(timeout.payload);
+                });
+                currentTick = Math.max(currentTick, target);
+                mismatches += bad[0];
+                ids.removeIf(id -> !live.containsKey(id));
+                for (long tick : dueTick.values()) {
+                    if (tick <= target) mismatches++;
+                }
+            }
+            if (wheel.size() != live.size()) {
+                mismatches++;
+                System.out.printf("step %d: wheel holds %d timeouts, expected %d%n", step, wheel.size(), live.size());
+                break;
+            }
+        }
+        System.out.printf("%,d steps, %,d fired, %,d pending, %d mismatches%n", steps, fired, live.size(), mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+
+    // Rounded up to a whole tick; anything already past fires on the next one
+    private static long expectedTick(long atMillis, long currentTick) {
+        return Math.max(Math.floorDiv(atMillis - ORIGIN + TICK - 1, TICK), currentTick + 1);
+    }
+}